@@ -0,0 +1,157 @@
+package randomlytyping.mldr.ui;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.view.Choreographer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import randomlytyping.mldr.R;
+import randomlytyping.util.Intents;
+import randomlytyping.widget.PrewarmedViewPool;
+
+/**
+ * Instrumentation benchmark launching {@link CustomViewGroupActivity} and flinging its list once,
+ * with and without a prewarmed row pool, item prefetch and precomputed text, which reports launch
+ * time and the frame times of the first scroll to logcat under the {@code ListStartupBenchmark}
+ * tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListStartupBenchmark {
+
+    private static final String TAG = "ListStartupBenchmark";
+
+    private static final int LAUNCHES = 10;
+
+    // Frames slower than this would have missed a 60 fps vsync.
+    private static final long JANK_NANOS = 16666667;
+
+    private static final int FLING_VELOCITY = 8000;
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Test
+    public void launchAndFling() {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final int defaultRows = context.getResources().getInteger(R.integer.list_prewarm_rows);
+        launchAndFling("no prewarm, no prefetch", 0, false, false);
+        launchAndFling("no prewarm, prefetch", 0, true, false);
+        launchAndFling("prewarm " + defaultRows + ", prefetch", defaultRows, true, false);
+        launchAndFling("prewarm " + defaultRows * 2 + ", prefetch", defaultRows * 2, true, false);
+        launchAndFling("prewarm " + defaultRows + ", prefetch, precomputed text", defaultRows,
+            true, true);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static void launchAndFling(String name, int prewarmRows, boolean itemPrefetch,
+                                       boolean precomputedText) {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Intent intent = Intents.getListIntent(instrumentation.getTargetContext(),
+            prewarmRows, itemPrefetch, precomputedText);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+        long launchNanos = 0;
+        long worstFrameNanos = 0;
+        int frames = 0;
+        int jankFrames = 0;
+        for (int i = 0; i < LAUNCHES; i++) {
+            final long start = SystemClock.elapsedRealtimeNanos();
+            final Activity activity = instrumentation.startActivitySync(intent);
+            launchNanos += SystemClock.elapsedRealtimeNanos() - start;
+
+            final RecyclerView list = (RecyclerView) activity.findViewById(R.id.list);
+            awaitPrewarm(instrumentation, list);
+
+            final ArrayList<Long> frameTimes = fling(instrumentation, list);
+            for (int j = 1; j < frameTimes.size(); j++) {
+                final long frameNanos = frameTimes.get(j) - frameTimes.get(j - 1);
+                worstFrameNanos = Math.max(worstFrameNanos, frameNanos);
+                if (frameNanos > JANK_NANOS) {
+                    jankFrames++;
+                }
+                frames++;
+            }
+
+            activity.finish();
+            instrumentation.waitForIdleSync();
+        }
+
+        Log.i(TAG, name + ": " + launchNanos / LAUNCHES / 1000000 + " ms to launch, "
+            + jankFrames + " of " + frames + " first-scroll frames janky, worst "
+            + worstFrameNanos / 1000000 + " ms");
+    }
+
+    /**
+     * Wait until the list's pool holds every row it was asked to create, as it would by the time
+     * the user first scrolls.
+     */
+    private static void awaitPrewarm(Instrumentation instrumentation, final RecyclerView list) {
+        final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MILLIS;
+        final boolean[] prewarming = new boolean[1];
+        do {
+            instrumentation.waitForIdleSync();
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    prewarming[0] =
+                        ((PrewarmedViewPool) list.getRecycledViewPool()).isPrewarming();
+                }
+            });
+        } while (prewarming[0] && SystemClock.uptimeMillis() < deadline);
+    }
+
+    /**
+     * Fling the list and record the time of each frame until it stops.
+     */
+    private static ArrayList<Long> fling(Instrumentation instrumentation,
+                                         final RecyclerView list) {
+        final ArrayList<Long> frameTimes = new ArrayList<>();
+        final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                frameTimes.add(frameTimeNanos);
+                Choreographer.getInstance().postFrameCallback(this);
+            }
+        };
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Choreographer.getInstance().postFrameCallback(frameCallback);
+                list.fling(0, FLING_VELOCITY);
+            }
+        });
+
+        final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MILLIS;
+        final boolean[] scrolling = new boolean[1];
+        do {
+            SystemClock.sleep(100);
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    scrolling[0] = list.getScrollState() != RecyclerView.SCROLL_STATE_IDLE;
+                }
+            });
+        } while (scrolling[0] && SystemClock.uptimeMillis() < deadline);
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Choreographer.getInstance().removeFrameCallback(frameCallback);
+            }
+        });
+        return frameTimes;
+    }
+}
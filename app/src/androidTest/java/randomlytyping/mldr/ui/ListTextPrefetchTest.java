@@ -0,0 +1,87 @@
+package randomlytyping.mldr.ui;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.RecyclerView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.util.Intents;
+import randomlytyping.widget.ListItemTextPrefetcher;
+import randomlytyping.widget.SimpleListItem;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests for the list demo's simple rows drawing text layouts that were built on a
+ * background thread before the rows were bound.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListTextPrefetchTest {
+
+    // Scrolls of a fraction of a row, spaced out like the frames of a slow scroll.
+    private static final int SCROLLS = 200;
+    private static final int SCROLL_PIXELS = 40;
+    private static final long SCROLL_INTERVAL_MILLIS = 32;
+
+    @Test
+    public void scroll_bindsPrefetchedLayouts() throws Exception {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Intent intent = Intents.getListIntent(instrumentation.getTargetContext(), 0, true,
+            true);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        final Activity activity = instrumentation.startActivitySync(intent);
+        final RecyclerView list = (RecyclerView) activity.findViewById(R.id.list);
+        instrumentation.waitForIdleSync();
+
+        final ListItemTextPrefetcher prefetcher =
+            ((CustomViewGroupActivity.ListItemAdapter) list.getAdapter()).getTextPrefetcher();
+        assertNotNull(prefetcher);
+
+        final int[] before = new int[2];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // The rows draw their own text rather than using text views.
+                final SimpleListItem row = (SimpleListItem) list.getChildAt(0);
+                assertNotNull(row.getTextLayoutSpec());
+                assertNull(row.findViewById(R.id.title));
+                before[0] = prefetcher.getHitCount();
+                before[1] = prefetcher.getMissCount();
+            }
+        });
+
+        for (int i = 0; i < SCROLLS; i++) {
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    list.scrollBy(0, SCROLL_PIXELS);
+                }
+            });
+            SystemClock.sleep(SCROLL_INTERVAL_MILLIS);
+        }
+
+        final int[] after = new int[2];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                after[0] = prefetcher.getHitCount();
+                after[1] = prefetcher.getMissCount();
+            }
+        });
+        activity.finish();
+
+        // Rows scrolling into view had their layouts built before they were bound.
+        final int hits = after[0] - before[0];
+        final int misses = after[1] - before[1];
+        assertTrue(hits + " prefetched, " + misses + " built on bind", hits > 0 && hits > misses);
+    }
+}
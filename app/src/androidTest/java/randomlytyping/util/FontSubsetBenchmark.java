@@ -0,0 +1,83 @@
+package randomlytyping.util;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * Instrumentation benchmark comparing the size and load time of the tally counter font with its
+ * digit-only subset, which reports results to logcat under the {@code FontSubsetBenchmark} tag.
+ *
+ * Fonts are loaded from copies in the cache directory, since the platform may cache typefaces
+ * created from assets and would hide repeated load costs.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FontSubsetBenchmark {
+
+    private static final String TAG = "FontSubsetBenchmark";
+
+    private static final int LOADS = 20;
+
+    @Test
+    public void loadFonts() throws Exception {
+        compare(Typefaces.HK_GROTESK, Typefaces.HK_GROTESK_DIGITS);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static void compare(String fullFont, String subsetFont) throws IOException {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final File full = copyToCache(context, fullFont);
+        final File subset = copyToCache(context, subsetFont);
+
+        Log.i(TAG, fullFont + ": " + full.length() + " -> " + subset.length() + " bytes, "
+            + loadTime(full) / 1000 + " -> " + loadTime(subset) / 1000 + " us per load");
+    }
+
+    /**
+     * @return Average nanoseconds to create a typeface from {@code file}.
+     */
+    private static long loadTime(File file) {
+        final long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < LOADS; i++) {
+            assertNotNull(Typeface.createFromFile(file));
+        }
+        return (SystemClock.elapsedRealtimeNanos() - start) / LOADS;
+    }
+
+    private static File copyToCache(Context context, String font) throws IOException {
+        final File file = new File(context.getCacheDir(), font);
+        final InputStream in = context.getAssets().open("fonts/" + font);
+        try {
+            final OutputStream out = new FileOutputStream(file);
+            try {
+                final byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, count);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+        return file;
+    }
+}
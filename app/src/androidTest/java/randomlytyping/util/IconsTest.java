@@ -0,0 +1,110 @@
+package randomlytyping.util;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+import randomlytyping.widget.SimpleListItem;
+import randomlytyping.widget.SimpleListItemFactory;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests for {@link Icons} sharing decoded icons across a scrolling list.
+ */
+@RunWith(AndroidJUnit4.class)
+public class IconsTest {
+
+    private static final int ITEM_COUNT = 100000;
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    // Passes down and back up through the first rows of the list.
+    private static final int PASSES = 3;
+    private static final int SCROLLS_PER_PASS = 500;
+    private static final int SCROLL_PER_FRAME = 60;
+
+    @Test
+    @UiThreadTest
+    public void scroll_loadsEachIconOnce() {
+        final Context context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        final RecyclerView list = new RecyclerView(context);
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setAdapter(new SyntheticAdapter(context));
+
+        Icons.clear();
+        final int misses = Icons.getMissCount();
+        final int hits = Icons.getHitCount();
+
+        layout(list);
+        for (int i = 0; i < PASSES; i++) {
+            scrollFrames(list, SCROLL_PER_FRAME);
+            scrollFrames(list, -SCROLL_PER_FRAME);
+        }
+
+        assertTrue(Icons.getMissCount() - misses <= ListItem.getItemCount());
+        assertTrue(Icons.getHitCount() > hits);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static void scrollFrames(RecyclerView list, int scrollPerFrame) {
+        for (int i = 0; i < SCROLLS_PER_PASS; i++) {
+            list.scrollBy(0, scrollPerFrame);
+            if (list.isLayoutRequested()) {
+                layout(list);
+            }
+        }
+    }
+
+    private static void layout(RecyclerView list) {
+        list.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        list.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Adapter cycling through the launch screen items for {@link #ITEM_COUNT} rows.
+     */
+    private static class SyntheticAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        private final SimpleListItemFactory factory;
+
+        SyntheticAdapter(Context context) {
+            factory = new SimpleListItemFactory(context);
+        }
+
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(factory.create()) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            final ListItem item = ListItem.getItem(position % ListItem.getItemCount());
+            ((SimpleListItem) holder.itemView).bind(item.iconResId, item.stringResId,
+                item.descResId);
+        }
+    }
+}
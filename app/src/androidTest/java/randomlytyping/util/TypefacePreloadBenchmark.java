@@ -0,0 +1,103 @@
+package randomlytyping.util;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import randomlytyping.widget.AttributedTallyCounter;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation benchmark for the cost of a tally counter's first frame depending on whether
+ * its typeface was preloaded, which reports results to logcat under the
+ * {@code TypefacePreloadBenchmark} tag.
+ *
+ * Recent platforms also cache typefaces created from assets, so only the first measurement in a
+ * fresh process includes a truly cold decode.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TypefacePreloadBenchmark {
+
+    private static final String TAG = "TypefacePreloadBenchmark";
+
+    private static final long LOAD_TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void firstFrame() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+
+        // Load on the calling thread before drawing, as counters used to.
+        Typefaces.clearCache();
+        long start = SystemClock.elapsedRealtimeNanos();
+        Typefaces.getTypeface(context, Typefaces.HK_GROTESK_DIGITS);
+        drawFirstFrame(context);
+        report("synchronous load", SystemClock.elapsedRealtimeNanos() - start);
+
+        // Draw with the fallback typeface while the real one loads in the background.
+        Typefaces.clearCache();
+        start = SystemClock.elapsedRealtimeNanos();
+        drawFirstFrame(context);
+        report("fallback", SystemClock.elapsedRealtimeNanos() - start);
+        awaitTypeface(context);
+
+        // Preload, as the application does at startup, then draw.
+        Typefaces.clearCache();
+        Typefaces.preload(context);
+        awaitTypeface(context);
+        start = SystemClock.elapsedRealtimeNanos();
+        drawFirstFrame(context);
+        report("preloaded", SystemClock.elapsedRealtimeNanos() - start);
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Create, measure, lay out and draw a counter once.
+     */
+    private static void drawFirstFrame(Context context) {
+        final AttributedTallyCounter counter = new AttributedTallyCounter(context);
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+
+        final Bitmap bitmap = Bitmap.createBitmap(counter.getMeasuredWidth(),
+            counter.getMeasuredHeight(), Bitmap.Config.ARGB_8888);
+        counter.draw(new Canvas(bitmap));
+    }
+
+    /**
+     * Block until the counter typeface is cached.
+     */
+    private static void awaitTypeface(Context context) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Typeface cached = Typefaces.requestTypeface(context, Typefaces.HK_GROTESK_DIGITS,
+            new Typefaces.Callback() {
+                @Override
+                public void onTypefaceLoaded(Typeface typeface) {
+                    latch.countDown();
+                }
+            });
+        if (cached == null) {
+            assertTrue(latch.await(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void report(String name, long nanos) {
+        Log.i(TAG, name + ": " + nanos / 1000 + " us to first frame");
+    }
+}
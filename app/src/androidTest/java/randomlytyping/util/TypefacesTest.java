@@ -0,0 +1,67 @@
+package randomlytyping.util;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.graphics.Typeface;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests for {@link Typefaces} notifying and cancelling background load requests.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TypefacesTest {
+
+    private static final long LOAD_TIMEOUT_SECONDS = 10;
+
+    @Test
+    public void cancelRequest_callbackIsNotNotified() throws Exception {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Context context = instrumentation.getTargetContext();
+        final boolean[] cancelledNotified = new boolean[1];
+        final CountDownLatch loaded = new CountDownLatch(1);
+        final Typefaces.Callback cancelled = new Typefaces.Callback() {
+            @Override
+            public void onTypefaceLoaded(Typeface typeface) {
+                cancelledNotified[0] = true;
+            }
+        };
+        final Typefaces.Callback kept = new Typefaces.Callback() {
+            @Override
+            public void onTypefaceLoaded(Typeface typeface) {
+                loaded.countDown();
+            }
+        };
+
+        // Callbacks are notified on the main thread, so none can run between these calls.
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Typefaces.clearCache();
+                assertNull(Typefaces.requestTypeface(context, Typefaces.HK_GROTESK, cancelled));
+                Typefaces.requestTypeface(context, Typefaces.HK_GROTESK, kept);
+                Typefaces.cancelRequest(Typefaces.HK_GROTESK, cancelled);
+            }
+        });
+
+        assertTrue("Typeface did not load in time",
+            loaded.await(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        // Both callbacks are notified from the same main thread message, in request order.
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                assertFalse(cancelledNotified[0]);
+            }
+        });
+    }
+}
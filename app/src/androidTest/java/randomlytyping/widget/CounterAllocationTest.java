@@ -0,0 +1,117 @@
+package randomlytyping.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Build;
+import android.os.Debug;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.filters.SdkSuppress;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests counting the objects a tally counter allocates on its hot path: setting a
+ * new count and drawing the frame that shows it.
+ *
+ * {@code CountFormatterTest} covers the formatting on its own; these cover everything the view
+ * does around it, in each of the counter's drawing modes.
+ *
+ * Allocations are measured with ART's {@code art.gc.bytes-allocated} runtime stat, which is only
+ * available from API 23.
+ */
+@RunWith(AndroidJUnit4.class)
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.M)
+public class CounterAllocationTest {
+
+    private static final String BYTES_ALLOCATED_STAT = "art.gc.bytes-allocated";
+
+    private static final int WARMUP_ITERATIONS = 1000;
+    private static final int ITERATIONS = 10000;
+
+    @Test
+    @UiThreadTest
+    public void setCountAndDraw_text_doesNotAllocate() {
+        assertSetCountAndDrawDoNotAllocate(newCounter());
+    }
+
+    @Test
+    @UiThreadTest
+    public void setCountAndDraw_atlas_doesNotAllocate() {
+        final AttributedTallyCounter counter = newCounter();
+        counter.setRenderMode(TallyCounter.RENDER_MODE_ATLAS);
+        assertSetCountAndDrawDoNotAllocate(counter);
+    }
+
+    @Test
+    @UiThreadTest
+    public void setCountAndDraw_cachedChrome_doesNotAllocate() {
+        final AttributedTallyCounter counter = newCounter();
+        counter.setChromeCacheEnabled(true);
+        assertSetCountAndDrawDoNotAllocate(counter);
+    }
+
+    @Test
+    @UiThreadTest
+    public void setCountAndDraw_rolling_doesNotAllocate() {
+        final AttributedTallyCounter counter = newCounter();
+        // Every count change starts or retargets a roll, so each frame draws rolling digits.
+        counter.setAnimateChanges(true);
+        assertSetCountAndDrawDoNotAllocate(counter);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static AttributedTallyCounter newCounter() {
+        return new AttributedTallyCounter(InstrumentationRegistry.getTargetContext());
+    }
+
+    /**
+     * Lay out {@code counter}, then measure the bytes allocated while it is set to a new count and
+     * drawn, over and over. Warms up first, so that one-time work such as the chrome bitmap and
+     * the digit atlas is done before measuring.
+     *
+     * The stat covers the whole process, so other threads can add a little noise. An allocation
+     * per increment would add at least one object header per iteration, so the test allows less
+     * than one byte per iteration instead of requiring none.
+     */
+    private static void assertSetCountAndDrawDoNotAllocate(BaseTallyCounter counter) {
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(counter.getMeasuredWidth(),
+            counter.getMeasuredHeight(), Bitmap.Config.ARGB_8888));
+
+        for (int i = 1; i <= WARMUP_ITERATIONS; i++) {
+            counter.setCount(i);
+            counter.draw(canvas);
+        }
+
+        final long before = getBytesAllocated();
+        for (int i = 1; i <= ITERATIONS; i++) {
+            counter.setCount(i % BaseTallyCounter.DEFAULT_MAX_COUNT);
+            counter.draw(canvas);
+        }
+        final long allocated = getBytesAllocated() - before;
+
+        assertTrue("Allocated " + allocated + " bytes in " + ITERATIONS + " increments",
+            allocated < ITERATIONS);
+    }
+
+    /**
+     * @return Total bytes allocated on the Java heap by this process so far.
+     */
+    private static long getBytesAllocated() {
+        final String bytes = Debug.getRuntimeStat(BYTES_ALLOCATED_STAT);
+        assertNotNull("Runtime stat " + BYTES_ALLOCATED_STAT + " is unavailable", bytes);
+        return Long.parseLong(bytes);
+    }
+}
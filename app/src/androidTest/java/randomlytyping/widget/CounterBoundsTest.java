@@ -0,0 +1,38 @@
+package randomlytyping.widget;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Instrumentation tests for the {@link TallyCounter#BOUNDS_FIXED} guarantee.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterBoundsTest {
+
+    private static final int INCREMENTS = 10000;
+
+    @Test
+    @UiThreadTest
+    public void fixedBounds_incrementsNeverRequestLayout() throws Exception {
+        final InteractedTallyCounter counter =
+            new InteractedTallyCounter(InstrumentationRegistry.getTargetContext());
+        counter.setBoundsPolicy(TallyCounter.BOUNDS_FIXED);
+
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+
+        for (int i = 0; i < INCREMENTS; i++) {
+            counter.increment();
+            assertFalse("Layout requested at count " + counter.getCount(),
+                counter.isLayoutRequested());
+        }
+    }
+}
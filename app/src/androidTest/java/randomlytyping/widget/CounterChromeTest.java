@@ -0,0 +1,95 @@
+package randomlytyping.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumentation tests counting the draw operations issued by a tally counter with and without
+ * the cached background and baseline.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterChromeTest {
+
+    private static final int FRAMES = 10;
+
+    @Test
+    public void uncachedChrome_drawsBackgroundEveryFrame() throws Exception {
+        final RecordingCanvas canvas = drawFrames(false);
+
+        assertEquals(FRAMES, canvas.roundRectCount);
+        assertEquals(FRAMES, canvas.lineCount);
+        assertEquals(0, canvas.bitmapCount);
+    }
+
+    @Test
+    public void cachedChrome_replaysBitmapEveryFrame() throws Exception {
+        final RecordingCanvas canvas = drawFrames(true);
+
+        assertEquals(0, canvas.roundRectCount);
+        assertEquals(0, canvas.lineCount);
+        assertEquals(FRAMES, canvas.bitmapCount);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static RecordingCanvas drawFrames(boolean cacheChrome) {
+        final AttributedTallyCounter counter =
+            new AttributedTallyCounter(InstrumentationRegistry.getTargetContext());
+        counter.setChromeCacheEnabled(cacheChrome);
+
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+
+        final RecordingCanvas canvas = new RecordingCanvas(Bitmap.createBitmap(
+            counter.getMeasuredWidth(), counter.getMeasuredHeight(), Bitmap.Config.ARGB_8888));
+        for (int i = 0; i < FRAMES; i++) {
+            counter.increment();
+            counter.draw(canvas);
+        }
+        return canvas;
+    }
+
+    /**
+     * Canvas that counts the operations a counter uses to draw its chrome.
+     */
+    private static class RecordingCanvas extends Canvas {
+        int roundRectCount;
+        int lineCount;
+        int bitmapCount;
+
+        RecordingCanvas(Bitmap bitmap) {
+            super(bitmap);
+        }
+
+        @Override
+        public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+            roundRectCount++;
+            super.drawRoundRect(rect, rx, ry, paint);
+        }
+
+        @Override
+        public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+            lineCount++;
+            super.drawLine(startX, startY, stopX, stopY, paint);
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            bitmapCount++;
+            super.drawBitmap(bitmap, left, top, paint);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumentation benchmarks for drawing tally counters, which report results to logcat under
+ * the {@code CounterDrawBenchmark} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterDrawBenchmark {
+
+    private static final String TAG = "CounterDrawBenchmark";
+
+    private static final int WARMUP_FRAMES = 500;
+    private static final int FRAMES = 5000;
+
+    // Paced frames take real time, so there are fewer of them: 600 frames is 10 seconds.
+    private static final int PACED_WARMUP_FRAMES = 60;
+    private static final int PACED_FRAMES = 600;
+    private static final long FRAME_MILLIS = 16;
+
+    @Test
+    public void drawText() throws Exception {
+        final AttributedTallyCounter counter = createCounter();
+        counter.setRenderMode(TallyCounter.RENDER_MODE_TEXT);
+        report("text", drawFrames(counter));
+    }
+
+    @Test
+    public void drawAtlas() throws Exception {
+        final AttributedTallyCounter counter = createCounter();
+        counter.setRenderMode(TallyCounter.RENDER_MODE_ATLAS);
+        report("atlas", drawFrames(counter));
+    }
+
+    @Test
+    public void drawDigitCounts() throws Exception {
+        // Compare frame cost as the number of displayed digits grows.
+        final long[] maxCounts = {9999L, 99999999L, 9999999999999999L};
+        for (long maxCount : maxCounts) {
+            final AttributedTallyCounter counter = createCounter();
+            counter.setMaxCount(maxCount);
+            counter.setLongCount(maxCount / 2);
+            report(CountFormatter.digitCount(maxCount) + " digits", drawFrames(counter));
+        }
+    }
+
+    @Test
+    public void drawRolling() throws Exception {
+        // Incrementing every frame is 60 increments/second at 60fps, so each frame retargets a
+        // roll that is still running. Frames are paced in real time, since the roll runs on the
+        // animation clock.
+        final AttributedTallyCounter counter = createCounter();
+        counter.setAnimateChanges(true);
+        report("rolling", drawPacedFrames(counter));
+    }
+
+    //
+    // Helpers
+    //
+
+    private static AttributedTallyCounter createCounter() {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        return new AttributedTallyCounter(context);
+    }
+
+    /**
+     * Increment and draw {@code counter} into a software canvas once per simulated frame.
+     *
+     * @return Average nanoseconds per frame.
+     */
+    private static long drawFrames(View counter) {
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+
+        final Bitmap bitmap = Bitmap.createBitmap(counter.getMeasuredWidth(),
+            counter.getMeasuredHeight(), Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+
+        final long startCount = ((TallyCounter) counter).getLongCount();
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            ((TallyCounter) counter).increment();
+            counter.draw(canvas);
+        }
+        ((TallyCounter) counter).setLongCount(startCount);
+
+        final long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < FRAMES; i++) {
+            ((TallyCounter) counter).increment();
+            counter.draw(canvas);
+        }
+        final long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+
+        bitmap.recycle();
+        return elapsed / FRAMES;
+    }
+
+    /**
+     * Increment and draw {@code counter} into a software canvas once every
+     * {@link #FRAME_MILLIS}, as a counter incremented once per frame would be.
+     *
+     * @return Average nanoseconds per frame, not counting the time between frames.
+     */
+    private static long drawPacedFrames(View counter) {
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+
+        final Bitmap bitmap = Bitmap.createBitmap(counter.getMeasuredWidth(),
+            counter.getMeasuredHeight(), Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+
+        long elapsed = 0;
+        long nextFrame = SystemClock.uptimeMillis();
+        for (int i = 0; i < PACED_WARMUP_FRAMES + PACED_FRAMES; i++) {
+            SystemClock.sleep(Math.max(0, nextFrame - SystemClock.uptimeMillis()));
+            nextFrame += FRAME_MILLIS;
+
+            final long start = SystemClock.elapsedRealtimeNanos();
+            ((TallyCounter) counter).increment();
+            counter.draw(canvas);
+            if (i >= PACED_WARMUP_FRAMES) {
+                elapsed += SystemClock.elapsedRealtimeNanos() - start;
+            }
+        }
+
+        bitmap.recycle();
+        return elapsed / PACED_FRAMES;
+    }
+
+    private static void report(String name, long nanosPerFrame) {
+        Log.i(TAG, name + ": " + nanosPerFrame + " ns/frame");
+    }
+}
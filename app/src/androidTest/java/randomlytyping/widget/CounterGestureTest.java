@@ -0,0 +1,166 @@
+package randomlytyping.widget;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.MotionEvent;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.util.Intents;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests injecting taps into an {@link InteractedTallyCounter}, in bursts while it
+ * is attached and around attaching and detaching it.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterGestureTest {
+
+    private static final int BURSTS = 10;
+    private static final int TAPS_PER_BURST = 20;
+
+    // Apart enough for the detector to see separate taps, and close enough for double taps.
+    private static final long TAP_INTERVAL_MILLIS = 50;
+
+    // Several frames at 60fps.
+    private static final long FRAME_WAIT_MILLIS = 100;
+
+    @Test
+    public void tapBursts_formatAndInvalidateAtMostOncePerFrame() throws Exception {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Intent intent = Intents.getDemoIntent(instrumentation.getTargetContext(),
+            R.layout.activity_interacted, false);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        final Activity activity = instrumentation.startActivitySync(intent);
+
+        final CountingCounters.Interacted counter = new CountingCounters.Interacted(activity);
+        final CountingCounters.FrameRecorder recorder =
+            new CountingCounters.FrameRecorder(counter);
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                counter.setMaxCount(Long.MAX_VALUE);
+                CountingCounters.attach(activity, counter);
+            }
+        });
+        instrumentation.waitForIdleSync();
+
+        final int[] formatsBefore = new int[1];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                formatsBefore[0] = counter.getFormatCount();
+                recorder.start();
+            }
+        });
+
+        final long[] eventTime = {SystemClock.uptimeMillis()};
+        for (int i = 0; i < BURSTS; i++) {
+            // A whole burst lands between two frames.
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    final float x = counter.getWidth() * 0.5f;
+                    final float y = counter.getHeight() * 0.5f;
+                    for (int j = 0; j < TAPS_PER_BURST; j++) {
+                        eventTime[0] += TAP_INTERVAL_MILLIS;
+                        tap(counter, eventTime[0], x, y);
+                    }
+                }
+            });
+            // Let the frame that applies the burst run before the next one.
+            instrumentation.waitForIdleSync();
+            SystemClock.sleep(FRAME_WAIT_MILLIS);
+        }
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                recorder.stop();
+            }
+        });
+        activity.finish();
+
+        final int formats = counter.getFormatCount() - formatsBefore[0];
+        assertTrue("No taps counted", counter.getLongCount() > 0);
+        assertEquals("Bursts formatted " + formats + " times", BURSTS, formats);
+        assertTrue("Formats in one frame: " + recorder.maxFormatsPerFrame,
+            recorder.maxFormatsPerFrame <= 1);
+        assertTrue("Invalidates in one frame: " + recorder.maxInvalidatesPerFrame,
+            recorder.maxInvalidatesPerFrame <= 1);
+    }
+
+    @Test
+    public void tap_detached_incrementsImmediately() throws Exception {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                final InteractedTallyCounter counter =
+                    new InteractedTallyCounter(InstrumentationRegistry.getTargetContext());
+                tap(counter, SystemClock.uptimeMillis(), 0, 0);
+                assertEquals(1, counter.getLongCount());
+            }
+        });
+    }
+
+    @Test
+    public void tapBeforeDetach_isAppliedAndLaterTapsStillBatch() throws Exception {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Intent intent = Intents.getDemoIntent(instrumentation.getTargetContext(),
+            R.layout.activity_interacted, false);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        final Activity activity = instrumentation.startActivitySync(intent);
+
+        final InteractedTallyCounter counter = new InteractedTallyCounter(activity);
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // The tap is still waiting for its frame when the counter detaches.
+                CountingCounters.attach(activity, counter);
+                tap(counter, SystemClock.uptimeMillis(), 0, 0);
+                ((ViewGroup) counter.getParent()).removeView(counter);
+                assertEquals(1, counter.getLongCount());
+
+                CountingCounters.attach(activity, counter);
+                tap(counter, SystemClock.uptimeMillis() + TAP_INTERVAL_MILLIS, 0, 0);
+            }
+        });
+        instrumentation.waitForIdleSync();
+        SystemClock.sleep(FRAME_WAIT_MILLIS);
+
+        final long[] count = new long[1];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                count[0] = counter.getLongCount();
+            }
+        });
+        activity.finish();
+
+        assertEquals(2, count[0]);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static void tap(InteractedTallyCounter counter, long downTime, float x, float y) {
+        final MotionEvent down =
+            MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        final MotionEvent up =
+            MotionEvent.obtain(downTime, downTime + 1, MotionEvent.ACTION_UP, x, y, 0);
+        counter.dispatchTouchEvent(down);
+        counter.dispatchTouchEvent(up);
+        down.recycle();
+        up.recycle();
+    }
+}
@@ -0,0 +1,84 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.content.res.XmlResourceParser;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.AttributeSet;
+import android.util.Log;
+import android.util.Xml;
+import android.view.ContextThemeWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.xmlpull.v1.XmlPullParser;
+
+import randomlytyping.mldr.R;
+
+/**
+ * Instrumentation benchmark for creating tally counters from XML attributes with and without the
+ * cache of resolved styles, which reports results to logcat under the
+ * {@code CounterInflationBenchmark} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterInflationBenchmark {
+
+    private static final String TAG = "CounterInflationBenchmark";
+
+    private static final int COUNTERS = 500;
+
+    @Test
+    @UiThreadTest
+    public void inflateCounters() throws Exception {
+        final Context context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        final XmlResourceParser parser = findCounterTag(context);
+        try {
+            final AttributeSet attrs = Xml.asAttributeSet(parser);
+
+            // Resolve every counter's attributes from scratch.
+            long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < COUNTERS; i++) {
+                TallyCounterStyle.clearCache();
+                new AttributedTallyCounter(context, attrs);
+            }
+            final long uncached = SystemClock.elapsedRealtimeNanos() - start;
+
+            // Resolve once and reuse for every later counter.
+            TallyCounterStyle.clearCache();
+            start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < COUNTERS; i++) {
+                new AttributedTallyCounter(context, attrs);
+            }
+            final long cached = SystemClock.elapsedRealtimeNanos() - start;
+
+            Log.i(TAG, COUNTERS + " counters: " + uncached / 1000 + " us uncached, "
+                + cached / 1000 + " us cached");
+        } finally {
+            parser.close();
+        }
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * @return Parser positioned on the counter tag of the attributed counter activity's layout.
+     */
+    private static XmlResourceParser findCounterTag(Context context) throws Exception {
+        final XmlResourceParser parser = context.getResources()
+            .getLayout(R.layout.activity_attributed);
+        int type;
+        while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+            if (type == XmlPullParser.START_TAG
+                && AttributedTallyCounter.class.getName().equals(parser.getName())) {
+                return parser;
+            }
+        }
+        parser.close();
+        throw new IllegalStateException("No AttributedTallyCounter in layout");
+    }
+}
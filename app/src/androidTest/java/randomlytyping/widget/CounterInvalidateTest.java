@@ -0,0 +1,140 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumentation tests for the dirty rect a count change passes to
+ * {@link android.view.View#invalidate(int, int, int, int)}.
+ *
+ * The counter uses digit metrics of known widths, so the expected rects follow from the layout
+ * below: centered at x = 200 with the baseline at y = round(200 * 0.6) = 120, so the text spans
+ * y = 90 to 130.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterInvalidateTest {
+
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 200;
+
+    private static final float TOP = -30f;
+    private static final float BOTTOM = 10f;
+
+    private static final int TEXT_TOP = 90;
+    private static final int TEXT_BOTTOM = 130;
+
+    private RectCapturingCounter counter;
+    private char zeroDigit;
+
+    @Before
+    public void setUp() throws Exception {
+        counter = new RectCapturingCounter(InstrumentationRegistry.getTargetContext());
+        counter.layout(0, 0, WIDTH, HEIGHT);
+        zeroDigit = counter.getCountFormatter().getZeroDigit();
+    }
+
+    @Test
+    @UiThreadTest
+    public void increment_invalidatesChangedCellPaddedByOnePixel() throws Exception {
+        // Four cells of 20.5px are 82px wide, starting at round(200 - 41) = 159. The last cell
+        // spans 159 + 3 * 20.5 = 220.5 to 241, padded outwards by a pixel after rounding.
+        counter.setDigitMetrics(metrics(20.5f, 20.5f));
+        counter.setCount(0);
+        counter.invalidates = 0;
+        counter.setCount(1);
+
+        assertEquals(new Rect(219, TEXT_TOP, 242, TEXT_BOTTOM), counter.dirty);
+        assertEquals(1, counter.invalidates);
+    }
+
+    @Test
+    @UiThreadTest
+    public void carry_invalidatesEveryChangedCell() throws Exception {
+        // 0019 -> 0020 changes the last two cells, from 159 + 2 * 20.5 = 200 to 241.
+        counter.setDigitMetrics(metrics(20.5f, 20.5f));
+        counter.setCount(19);
+        counter.setCount(20);
+
+        assertEquals(new Rect(199, TEXT_TOP, 242, TEXT_BOTTOM), counter.dirty);
+    }
+
+    @Test
+    @UiThreadTest
+    public void proportionalDigits_sameWidth_invalidatesChangedCell() throws Exception {
+        // With a narrow 1, 0012 and 0013 are both 70px wide and start at round(200 - 35) = 165.
+        // The last cell starts at 165 + 20 + 20 + 10 = 215 and is as wide as the widest digit.
+        counter.setDigitMetrics(metrics(20f, 10f));
+        counter.setCount(12);
+        counter.setCount(13);
+
+        assertEquals(new Rect(214, TEXT_TOP, 236, TEXT_BOTTOM), counter.dirty);
+    }
+
+    @Test
+    @UiThreadTest
+    public void proportionalDigits_widthChange_invalidatesWholeLine() throws Exception {
+        // 0009 is 80px wide and 0010 is 70px, so recentering moves every cell.
+        counter.setDigitMetrics(metrics(20f, 10f));
+        counter.setCount(9);
+        counter.setCount(10);
+
+        assertEquals(new Rect(0, TEXT_TOP, WIDTH, TEXT_BOTTOM), counter.dirty);
+    }
+
+    @Test
+    @UiThreadTest
+    public void unchangedCount_doesNotInvalidate() throws Exception {
+        counter.setDigitMetrics(metrics(20.5f, 20.5f));
+        counter.setCount(5);
+        counter.invalidates = 0;
+        counter.setCount(5);
+
+        assertEquals(0, counter.invalidates);
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * @return Metrics where every digit is {@code advance} wide except the digit one, which is
+     * {@code oneAdvance} wide.
+     */
+    private DigitMetrics metrics(float advance, float oneAdvance) {
+        final float[] advances = new float[10];
+        Arrays.fill(advances, advance);
+        advances[1] = oneAdvance;
+        return new DigitMetrics(advances, zeroDigit, TOP, BOTTOM);
+    }
+
+    /**
+     * Counter recording the last dirty rect passed to {@link #invalidate(int, int, int, int)}.
+     */
+    private static class RectCapturingCounter extends InvalidatedTallyCounter {
+        // Not initialized here: the superclass constructor already sets a count.
+        Rect dirty;
+        int invalidates;
+
+        RectCapturingCounter(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            invalidates++;
+            dirty = new Rect(l, t, r, b);
+            super.invalidate(l, t, r, b);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumentation tests for changing the maximum count of an animating tally counter.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterMaxCountTest {
+
+    @Test
+    @UiThreadTest
+    public void attributed_narrowerMaxCount_clampsWhileRolling() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        assertClampsWhileRolling(new AttributedTallyCounter(context));
+    }
+
+    @Test
+    @UiThreadTest
+    public void interacted_narrowerMaxCount_clampsWhileRolling() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        assertClampsWhileRolling(new InteractedTallyCounter(context));
+    }
+
+    //
+    // Helpers
+    //
+
+    private static void assertClampsWhileRolling(BaseTallyCounter counter) {
+        counter.setAnimateChanges(true);
+        counter.setLongCount(5000);
+
+        // Fewer digits and a count above the new maximum, so the count is clamped while the
+        // digit cells shrink.
+        counter.setMaxCount(99);
+
+        assertEquals(99, counter.getLongCount());
+        assertEquals("99", new String(counter.getDisplayedCount()));
+
+        // Rolls after the change use the new cells.
+        counter.setLongCount(42);
+        final int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        counter.measure(unspecified, unspecified);
+        counter.layout(0, 0, counter.getMeasuredWidth(), counter.getMeasuredHeight());
+        final Bitmap bitmap = Bitmap.createBitmap(counter.getMeasuredWidth(),
+            counter.getMeasuredHeight(), Bitmap.Config.ARGB_8888);
+        counter.draw(new Canvas(bitmap));
+        bitmap.recycle();
+
+        assertEquals("42", new String(counter.getDisplayedCount()));
+    }
+}
@@ -0,0 +1,103 @@
+package randomlytyping.widget;
+
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumentation tests counting how often a tally counter computes its content size from its
+ * digit metrics across repeated calls to {@link View#measure(int, int)}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterMeasureTest {
+
+    private static final int PASSES = 10;
+
+    // Width specs a weighted LinearLayout measures a child with, and a height spec.
+    private static final int WIDTH_SPEC_AT_MOST =
+        View.MeasureSpec.makeMeasureSpec(2000, View.MeasureSpec.AT_MOST);
+    private static final int WIDTH_SPEC_EXACTLY =
+        View.MeasureSpec.makeMeasureSpec(300, View.MeasureSpec.EXACTLY);
+    private static final int HEIGHT_SPEC =
+        View.MeasureSpec.makeMeasureSpec(2000, View.MeasureSpec.AT_MOST);
+
+    private CountingCounters.Attributed counter;
+
+    @Before
+    public void setUp() throws Exception {
+        counter = new CountingCounters.Attributed(InstrumentationRegistry.getTargetContext());
+    }
+
+    @Test
+    @UiThreadTest
+    public void sameSpecs_measureContentOnce() throws Exception {
+        measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+        final int width = counter.getMeasuredWidth();
+        final int height = counter.getMeasuredHeight();
+        for (int i = 1; i < PASSES; i++) {
+            measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+        }
+
+        assertEquals(1, counter.getContentMeasureCount());
+        assertEquals(width, counter.getMeasuredWidth());
+        assertEquals(height, counter.getMeasuredHeight());
+    }
+
+    @Test
+    @UiThreadTest
+    public void differentSpecs_measureContentOnce() throws Exception {
+        for (int i = 0; i < PASSES; i++) {
+            measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+            assertEquals(Math.round(counter.getDigitMetrics().measureMaxText(4)),
+                counter.getMeasuredWidth());
+            measure(WIDTH_SPEC_EXACTLY, HEIGHT_SPEC);
+            assertEquals(300, counter.getMeasuredWidth());
+        }
+
+        assertEquals(1, counter.getContentMeasureCount());
+    }
+
+    @Test
+    @UiThreadTest
+    public void paddingChange_remeasuresContent() throws Exception {
+        measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+        final int width = counter.getMeasuredWidth();
+        counter.setPadding(8, 0, 8, 0);
+        measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+
+        assertEquals(2, counter.getContentMeasureCount());
+        assertEquals(width + 16, counter.getMeasuredWidth());
+    }
+
+    @Test
+    @UiThreadTest
+    public void textSizeChange_remeasuresContent() throws Exception {
+        measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+        counter.setTextSize(counter.getPaints().getNumberPaint().getTextSize() * 2f);
+        measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+        measure(WIDTH_SPEC_AT_MOST, HEIGHT_SPEC);
+
+        assertEquals(2, counter.getContentMeasureCount());
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Measure the counter the way a parent does during a layout pass. The parent's layout request
+     * forces the counter's {@code onMeasure()} to run, so {@link View}'s own measure cache does not
+     * hide the counter's.
+     */
+    private void measure(int widthMeasureSpec, int heightMeasureSpec) {
+        counter.forceLayout();
+        counter.measure(widthMeasureSpec, heightMeasureSpec);
+    }
+}
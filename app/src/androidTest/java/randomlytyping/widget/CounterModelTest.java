@@ -0,0 +1,105 @@
+package randomlytyping.widget;
+
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.util.Intents;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests for an attached tally counter displaying a {@link TallyCounterModel}
+ * incremented from many threads.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterModelTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 20000;
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @Test
+    public void concurrentIncrements_formatAndInvalidateAtMostOncePerFrame() throws Exception {
+        final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Intent intent = Intents.getDemoIntent(instrumentation.getTargetContext(),
+            R.layout.activity_attributed, false);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        final Activity activity = instrumentation.startActivitySync(intent);
+
+        final TallyCounterModel model = new TallyCounterModel();
+        final CountingCounters.Attributed counter = new CountingCounters.Attributed(activity);
+        final CountingCounters.FrameRecorder recorder =
+            new CountingCounters.FrameRecorder(counter);
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                counter.setMaxCount(Long.MAX_VALUE);
+                CountingCounters.attach(activity, counter);
+                counter.setModel(model);
+            }
+        });
+        instrumentation.waitForIdleSync();
+        final int[] formatsBefore = new int[1];
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                formatsBefore[0] = counter.getFormatCount();
+                recorder.start();
+            }
+        });
+
+        ModelIncrementers.run(model, THREADS, INCREMENTS_PER_THREAD);
+        final long total = (long) THREADS * INCREMENTS_PER_THREAD;
+        awaitCount(instrumentation, counter, total);
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                recorder.stop();
+            }
+        });
+        activity.finish();
+
+        assertEquals(total, counter.getLongCount());
+        assertTrue("Formats in one frame: " + recorder.maxFormatsPerFrame,
+            recorder.maxFormatsPerFrame <= 1);
+        assertTrue("Invalidates in one frame: " + recorder.maxInvalidatesPerFrame,
+            recorder.maxInvalidatesPerFrame <= 1);
+        final int formats = counter.getFormatCount() - formatsBefore[0];
+        assertTrue(formats + " formats in " + recorder.frames + " frames",
+            formats <= recorder.frames + 1);
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Wait until the counter displays {@code count}, which it does on the frame after the model
+     * last changed.
+     */
+    private static void awaitCount(Instrumentation instrumentation, final BaseTallyCounter counter,
+                                   long count) {
+        final long deadline = SystemClock.uptimeMillis() + TIMEOUT_MILLIS;
+        final long[] displayed = new long[1];
+        do {
+            SystemClock.sleep(16);
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    displayed[0] = counter.getLongCount();
+                }
+            });
+        } while (displayed[0] != count && SystemClock.uptimeMillis() < deadline);
+    }
+}
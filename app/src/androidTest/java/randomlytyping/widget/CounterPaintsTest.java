@@ -0,0 +1,91 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import randomlytyping.util.Typefaces;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests counting the paints, each backed by one native paint object, held by a
+ * screen full of identically styled tally counters.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CounterPaintsTest {
+
+    private static final String TAG = "CounterPaintsTest";
+
+    private static final int COUNTERS = 100;
+
+    // Paints each counter allocated for itself before paints were pooled.
+    private static final int PAINTS_PER_COUNTER = 3;
+
+    private static final long LOAD_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Block until the counter typeface is cached. Counters created while it is still loading draw
+     * with a fallback and switch paints once it arrives, so some of them would hold other paints.
+     */
+    @Before
+    public void awaitTypeface() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final Typeface cached = Typefaces.requestTypeface(
+            InstrumentationRegistry.getTargetContext(), Typefaces.HK_GROTESK_DIGITS,
+            new Typefaces.Callback() {
+                @Override
+                public void onTypefaceLoaded(Typeface typeface) {
+                    latch.countDown();
+                }
+            });
+        if (cached == null) {
+            assertTrue(latch.await(LOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void identicalCounters_shareOneSetOfPaints() throws Exception {
+        final Context context = InstrumentationRegistry.getTargetContext();
+        final Set<Paint> paints = Collections.newSetFromMap(new IdentityHashMap<Paint, Boolean>());
+        for (int i = 0; i < COUNTERS; i++) {
+            final CounterPaints counterPaints = new AttributedTallyCounter(context).getPaints();
+            paints.add(counterPaints.getBackgroundPaint());
+            paints.add(counterPaints.getLinePaint());
+            paints.add(counterPaints.getNumberPaint());
+        }
+
+        Log.i(TAG, COUNTERS + " counters: " + paints.size() + " paints, down from "
+            + COUNTERS * PAINTS_PER_COUNTER + " unpooled");
+        assertEquals(PAINTS_PER_COUNTER, paints.size());
+    }
+
+    @Test
+    public void derivedConfiguration_isPooled() throws Exception {
+        final CounterPaints paints = new AttributedTallyCounter(
+            InstrumentationRegistry.getTargetContext()).getPaints();
+
+        final float textSize = paints.getNumberPaint().getTextSize();
+        final CounterPaints larger = paints.withTextSize(textSize * 2f);
+
+        assertNotSame(paints, larger);
+        assertSame(larger, paints.withTextSize(textSize * 2f));
+        assertSame(paints, larger.withTextSize(textSize));
+    }
+}
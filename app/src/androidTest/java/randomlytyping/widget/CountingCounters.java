@@ -0,0 +1,161 @@
+package randomlytyping.widget;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.Choreographer;
+import android.view.ViewGroup;
+
+/**
+ * Tally counters for instrumentation tests that count the formats and dirty-rect invalidates
+ * their count changes cause, and a frame callback that records the most of either in one frame.
+ * The attributed counter also counts how often it computes its content size.
+ */
+final class CountingCounters {
+
+    /**
+     * A counter that counts its formats and invalidates.
+     */
+    interface Counting {
+
+        int getFormatCount();
+
+        int getInvalidateCount();
+    }
+
+    static class Attributed extends AttributedTallyCounter implements Counting {
+        private int formats;
+        private int invalidates;
+        private int contentMeasures;
+
+        Attributed(Context context) {
+            super(context);
+        }
+
+        @Override
+        void measureContentSize() {
+            contentMeasures++;
+            super.measureContentSize();
+        }
+
+        /**
+         * @return Number of times the content size was computed from the digit metrics.
+         */
+        int getContentMeasureCount() {
+            return contentMeasures;
+        }
+
+        @Override
+        void onDisplayedCountChanged(float oldTextWidth) {
+            formats++;
+            super.onDisplayedCountChanged(oldTextWidth);
+        }
+
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            invalidates++;
+            super.invalidate(l, t, r, b);
+        }
+
+        @Override
+        public int getFormatCount() {
+            return formats;
+        }
+
+        @Override
+        public int getInvalidateCount() {
+            return invalidates;
+        }
+    }
+
+    static class Interacted extends InteractedTallyCounter implements Counting {
+        private int formats;
+        private int invalidates;
+
+        Interacted(Context context) {
+            super(context);
+        }
+
+        @Override
+        void onDisplayedCountChanged(float oldTextWidth) {
+            formats++;
+            super.onDisplayedCountChanged(oldTextWidth);
+        }
+
+        @Override
+        public void invalidate(int l, int t, int r, int b) {
+            invalidates++;
+            super.invalidate(l, t, r, b);
+        }
+
+        @Override
+        public int getFormatCount() {
+            return formats;
+        }
+
+        @Override
+        public int getInvalidateCount() {
+            return invalidates;
+        }
+    }
+
+    /**
+     * Frame callback recording the most formats and invalidates of a counter between two
+     * consecutive frames. Every frame runs each of the counter's own frame callbacks at most once,
+     * so a counter that coalesces its changes never exceeds one of each. Main thread only.
+     */
+    static class FrameRecorder implements Choreographer.FrameCallback {
+        private final Counting counter;
+        private int lastFormats;
+        private int lastInvalidates;
+
+        int frames;
+        int maxFormatsPerFrame;
+        int maxInvalidatesPerFrame;
+
+        FrameRecorder(Counting counter) {
+            this.counter = counter;
+        }
+
+        void start() {
+            lastFormats = counter.getFormatCount();
+            lastInvalidates = counter.getInvalidateCount();
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void stop() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            final int formats = counter.getFormatCount();
+            final int invalidates = counter.getInvalidateCount();
+            maxFormatsPerFrame = Math.max(maxFormatsPerFrame, formats - lastFormats);
+            maxInvalidatesPerFrame =
+                Math.max(maxInvalidatesPerFrame, invalidates - lastInvalidates);
+            lastFormats = formats;
+            lastInvalidates = invalidates;
+            frames++;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Attach {@code counter} to {@code activity}'s window. Main thread only.
+     */
+    static void attach(Activity activity, BaseTallyCounter counter) {
+        activity.addContentView(counter, new ViewGroup.LayoutParams(
+            ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private CountingCounters() {
+        throw new AssertionError("Cannot instantiate " + getClass().getName());
+    }
+}
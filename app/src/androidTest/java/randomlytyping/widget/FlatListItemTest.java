@@ -0,0 +1,58 @@
+package randomlytyping.widget;
+
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.LayoutInflater;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Instrumentation tests for {@link FlatListItem} matching the rows it replaces.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FlatListItemTest {
+
+    private LayoutInflater inflater;
+
+    @Before
+    public void setUp() {
+        inflater = LayoutInflater.from(ListItemFixtures.getThemedContext());
+    }
+
+    @Test
+    @UiThreadTest
+    public void size_matchesSimpleListItem() {
+        final SimpleListItem simple =
+            (SimpleListItem) inflater.inflate(R.layout.list_item_simple, null);
+        final FlatListItem flat = (FlatListItem) inflater.inflate(R.layout.list_item_flat, null);
+        for (ListItem listItem : ListItem.values()) {
+            simple.bind(listItem.iconResId, listItem.stringResId, listItem.descResId);
+            flat.bind(listItem.iconResId, listItem.stringResId, listItem.descResId);
+            ListItemFixtures.measureAndLayout(simple);
+            ListItemFixtures.measureAndLayout(flat);
+
+            assertEquals(simple.getMeasuredWidth(), flat.getMeasuredWidth());
+            assertEquals(simple.getMeasuredHeight(), flat.getMeasuredHeight());
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void bind_neverRequestsLayout() {
+        final FlatListItem flat = (FlatListItem) inflater.inflate(R.layout.list_item_flat, null);
+        ListItemFixtures.measureAndLayout(flat);
+
+        for (ListItem listItem : ListItem.values()) {
+            flat.bind(listItem.iconResId, listItem.stringResId, listItem.descResId);
+            assertFalse(flat.isLayoutRequested());
+        }
+    }
+}
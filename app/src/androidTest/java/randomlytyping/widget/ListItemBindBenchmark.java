@@ -0,0 +1,121 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+
+/**
+ * Instrumentation benchmark for the cost of binding, measuring and laying out one list row,
+ * comparing rows with text views against rows that draw precomputed text layouts. Reports
+ * results to logcat under the {@code ListItemBindBenchmark} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListItemBindBenchmark {
+
+    private static final String TAG = "ListItemBindBenchmark";
+
+    private static final int WARMUP_ROWS = 500;
+    private static final int ROWS = 5000;
+
+    private static final int WIDTH = 1080;
+
+    private Context context;
+
+    // Distinct text for every row, so no bind is skipped as unchanged.
+    private final CharSequence[] titles = new CharSequence[WARMUP_ROWS + ROWS];
+    private final CharSequence[] subtitles = new CharSequence[WARMUP_ROWS + ROWS];
+
+    @Before
+    public void setUp() {
+        context = new ContextThemeWrapper(InstrumentationRegistry.getTargetContext(),
+            R.style.AppTheme);
+        final Resources res = context.getResources();
+        final ListItem[] listItems = ListItem.values();
+        for (int i = 0; i < titles.length; i++) {
+            final ListItem listItem = listItems[i % listItems.length];
+            titles[i] = res.getString(listItem.stringResId) + " " + i;
+            subtitles[i] = res.getString(listItem.descResId);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void textViews() {
+        final SimpleListItem item = inflate(R.layout.list_item_simple);
+        bindRows(item, 0, WARMUP_ROWS);
+        final long start = SystemClock.elapsedRealtimeNanos();
+        bindRows(item, WARMUP_ROWS, ROWS);
+        report("text views", SystemClock.elapsedRealtimeNanos() - start);
+    }
+
+    @Test
+    @UiThreadTest
+    public void drawnText_builtOnBind() {
+        final SimpleListItem item = inflate(R.layout.list_item_precomputed);
+        bindRows(item, 0, WARMUP_ROWS);
+        final long start = SystemClock.elapsedRealtimeNanos();
+        bindRows(item, WARMUP_ROWS, ROWS);
+        report("drawn text, built on bind", SystemClock.elapsedRealtimeNanos() - start);
+    }
+
+    @Test
+    @UiThreadTest
+    public void drawnText_prebuilt() {
+        final SimpleListItem item = inflate(R.layout.list_item_precomputed);
+        bindRows(item, 0, WARMUP_ROWS);
+
+        // Build the layouts up front, as a prefetcher would in the background.
+        final ListItemTextLayout.Spec spec = item.getTextLayoutSpec();
+        final ListItemTextLayout[] layouts = new ListItemTextLayout[titles.length];
+        for (int i = WARMUP_ROWS; i < titles.length; i++) {
+            layouts[i] = ListItemTextLayout.build(titles[i], subtitles[i], spec);
+        }
+
+        final long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = WARMUP_ROWS; i < titles.length; i++) {
+            item.setTextLayout(layouts[i]);
+            measureAndLayout(item);
+        }
+        report("drawn text, prebuilt", SystemClock.elapsedRealtimeNanos() - start);
+    }
+
+    //
+    // Helpers
+    //
+
+    private SimpleListItem inflate(int layoutResId) {
+        return (SimpleListItem) LayoutInflater.from(context).inflate(layoutResId, null);
+    }
+
+    private void bindRows(SimpleListItem item, int first, int count) {
+        for (int i = first; i < first + count; i++) {
+            item.setText(titles[i], subtitles[i]);
+            measureAndLayout(item);
+        }
+    }
+
+    private static void measureAndLayout(SimpleListItem item) {
+        item.forceLayout();
+        item.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        item.layout(0, 0, item.getMeasuredWidth(), item.getMeasuredHeight());
+    }
+
+    private static void report(String name, long nanos) {
+        Log.i(TAG, name + ": " + nanos / ROWS + " ns per row");
+    }
+}
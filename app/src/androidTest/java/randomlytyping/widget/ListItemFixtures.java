@@ -0,0 +1,47 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.support.test.InstrumentationRegistry;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import randomlytyping.mldr.R;
+
+/**
+ * Shared setup for instrumentation tests of list rows: the app theme the rows are styled by, and
+ * measuring and laying out a row the way a vertical list of a phone's width does.
+ */
+final class ListItemFixtures {
+
+    // Width of the list on a typical phone, in pixels.
+    static final int WIDTH = 1080;
+
+    /**
+     * @return The target context with the app theme, which list rows need to resolve their
+     * attributes.
+     */
+    static Context getThemedContext() {
+        return new ContextThemeWrapper(InstrumentationRegistry.getTargetContext(),
+            R.style.AppTheme);
+    }
+
+    /**
+     * Measure {@code item} at the list's exact width and its own height, then lay it out.
+     */
+    static void measureAndLayout(View item) {
+        item.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        item.layout(0, 0, item.getMeasuredWidth(), item.getMeasuredHeight());
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ListItemFixtures() {
+        throw new AssertionError("Cannot instantiate " + getClass().getName());
+    }
+}
@@ -0,0 +1,141 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+
+/**
+ * Instrumentation benchmark scrolling a long list of {@link SimpleListItem} rows with and
+ * without fixed-height rows, which reports results to logcat under the
+ * {@code ListScrollBenchmark} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ListScrollBenchmark {
+
+    private static final String TAG = "ListScrollBenchmark";
+
+    private static final int ITEM_COUNT = 100000;
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private static final int WARMUP_FRAMES = 200;
+    private static final int FRAMES = 2000;
+
+    // Distance scrolled per frame, a fling-like speed that binds a new row every few frames.
+    private static final int SCROLL_PER_FRAME = 60;
+
+    @Test
+    @UiThreadTest
+    public void scroll() {
+        scroll("measured rows", false, false);
+        scroll("fixed-height rows", true, false);
+        scroll("fixed-height rows, fixed size", true, true);
+    }
+
+    //
+    // Helpers
+    //
+
+    private static void scroll(String name, boolean fixedHeight, boolean hasFixedSize) {
+        final Context context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        final SyntheticAdapter adapter = new SyntheticAdapter(context, fixedHeight);
+        final RecyclerView list = new RecyclerView(context);
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setHasFixedSize(hasFixedSize);
+        list.setAdapter(adapter);
+        layout(list);
+
+        scrollFrames(list, WARMUP_FRAMES);
+        final int childMeasures = adapter.getChildMeasureCount();
+        final long start = SystemClock.elapsedRealtimeNanos();
+        scrollFrames(list, FRAMES);
+        final long elapsed = SystemClock.elapsedRealtimeNanos() - start;
+
+        Log.i(TAG, name + ": " + elapsed / FRAMES / 1000 + " us per frame, "
+            + (adapter.getChildMeasureCount() - childMeasures) + " child measures in "
+            + FRAMES + " frames, " + adapter.getItemViewCount() + " rows created");
+    }
+
+    /**
+     * Scroll {@code list} one step per simulated frame, laying it out again whenever scrolling
+     * requested layout, as the next traversal would.
+     */
+    private static void scrollFrames(RecyclerView list, int frames) {
+        for (int i = 0; i < frames; i++) {
+            list.scrollBy(0, SCROLL_PER_FRAME);
+            if (list.isLayoutRequested()) {
+                layout(list);
+            }
+        }
+    }
+
+    private static void layout(RecyclerView list) {
+        list.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        list.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Adapter cycling through the launch screen items for {@link #ITEM_COUNT} rows.
+     */
+    private static class SyntheticAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        private final MeasureCountingInflater inflater;
+        private final boolean fixedHeight;
+        private int itemViewCount;
+
+        SyntheticAdapter(Context context, boolean fixedHeight) {
+            inflater = new MeasureCountingInflater(context);
+            this.fixedHeight = fixedHeight;
+        }
+
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            final SimpleListItem itemView =
+                (SimpleListItem) inflater.inflate(R.layout.list_item_simple, parent);
+            itemView.setFixedHeight(fixedHeight);
+            itemViewCount++;
+            return new RecyclerView.ViewHolder(itemView) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            final ListItem item = ListItem.values()[position % ListItem.values().length];
+            ((SimpleListItem) holder.itemView).bind(item.iconResId, item.stringResId,
+                item.descResId);
+        }
+
+        int getItemViewCount() {
+            return itemViewCount;
+        }
+
+        /**
+         * @return Children measured so far across every row.
+         */
+        int getChildMeasureCount() {
+            return inflater.getMeasureCount();
+        }
+    }
+}
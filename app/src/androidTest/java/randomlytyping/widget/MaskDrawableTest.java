@@ -0,0 +1,109 @@
+package randomlytyping.widget;
+
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.filters.SdkSuppress;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v4.graphics.drawable.DrawableCompat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Instrumentation tests for {@link MaskDrawable} decoding the generated icon masks.
+ */
+@RunWith(AndroidJUnit4.class)
+public class MaskDrawableTest {
+
+    @Test
+    public void decode_givesAlpha8IconSizedMask() {
+        final Resources res = InstrumentationRegistry.getTargetContext().getResources();
+        final int iconSize = res.getDimensionPixelSize(R.dimen.list_item_icon_size);
+        for (ListItem listItem : ListItem.values()) {
+            final MaskDrawable icon = MaskDrawable.decode(res, listItem.iconResId);
+            assertEquals(Bitmap.Config.ALPHA_8, icon.getMask().getConfig());
+            assertEquals(iconSize, icon.getIntrinsicWidth());
+            assertEquals(iconSize, icon.getIntrinsicHeight());
+        }
+    }
+
+    @Test
+    public void newDrawable_sharesMask() {
+        final Resources res = InstrumentationRegistry.getTargetContext().getResources();
+        final MaskDrawable icon = MaskDrawable.decode(res, ListItem.ITEM_01.iconResId);
+        final MaskDrawable copy = (MaskDrawable) icon.getConstantState().newDrawable(res);
+        assertSame(icon.getMask(), copy.getMask());
+    }
+
+    @Test
+    @SdkSuppress(minSdkVersion = Build.VERSION_CODES.LOLLIPOP)
+    public void tint_fillsMask() {
+        final MaskDrawable icon = decodeIcon();
+        icon.setTintList(ColorStateList.valueOf(Color.RED));
+        assertEquals(Color.RED, drawOpaquePixel(icon, icon.getMask()));
+    }
+
+    @Test
+    public void compatTint_fillsMask() {
+        // Runs on every supported version; before API 21 the wrapper tints through a color filter.
+        final MaskDrawable icon = decodeIcon();
+        final Drawable wrapped = DrawableCompat.wrap(icon);
+        DrawableCompat.setTintList(wrapped, ColorStateList.valueOf(Color.RED));
+        assertEquals(Color.RED, drawOpaquePixel(wrapped, icon.getMask()));
+    }
+
+    @Test
+    @SdkSuppress(minSdkVersion = Build.VERSION_CODES.LOLLIPOP)
+    public void colorFilter_overridesTint() {
+        final MaskDrawable icon = decodeIcon();
+        icon.setTintList(ColorStateList.valueOf(Color.RED));
+        icon.setColorFilter(new PorterDuffColorFilter(Color.BLUE, PorterDuff.Mode.SRC_IN));
+        assertEquals(Color.BLUE, drawOpaquePixel(icon, icon.getMask()));
+
+        // Clearing the filter restores the tint.
+        icon.setColorFilter(null);
+        assertEquals(Color.RED, drawOpaquePixel(icon, icon.getMask()));
+    }
+
+    //
+    // Helpers
+    //
+
+    private static MaskDrawable decodeIcon() {
+        return MaskDrawable.decode(InstrumentationRegistry.getTargetContext().getResources(),
+            ListItem.ITEM_01.iconResId);
+    }
+
+    /**
+     * Draw {@code icon} at the size of {@code mask} and read back a pixel the mask fully covers.
+     */
+    private static int drawOpaquePixel(Drawable icon, Bitmap mask) {
+        final int width = mask.getWidth();
+        final int height = mask.getHeight();
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        icon.setBounds(0, 0, width, height);
+        icon.draw(new Canvas(bitmap));
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (Color.alpha(mask.getPixel(x, y)) == 255) {
+                    return bitmap.getPixel(x, y);
+                }
+            }
+        }
+        throw new AssertionError("Mask has no fully covered pixel");
+    }
+}
@@ -0,0 +1,79 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.util.AttributeSet;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+/**
+ * Inflates layouts whose image and text views count how often they actually run
+ * {@link View#onMeasure(int, int)}, as opposed to being skipped by {@link View#measure(int, int)}
+ * because their specs are unchanged and they have not requested layout. Main thread only.
+ */
+final class MeasureCountingInflater implements LayoutInflater.Factory {
+
+    private final LayoutInflater inflater;
+    private int measureCount;
+
+    MeasureCountingInflater(Context context) {
+        inflater = LayoutInflater.from(context).cloneInContext(context);
+        inflater.setFactory(this);
+    }
+
+    View inflate(@LayoutRes int layoutResId, ViewGroup parent) {
+        return inflater.inflate(layoutResId, parent, false);
+    }
+
+    /**
+     * @return Number of times any inflated image or text view was measured.
+     */
+    int getMeasureCount() {
+        return measureCount;
+    }
+
+    @Override
+    public View onCreateView(String name, Context context, AttributeSet attrs) {
+        switch (name) {
+            case "ImageView":
+                return new CountingImageView(context, attrs);
+            case "TextView":
+                return new CountingTextView(context, attrs);
+            default:
+                return null;
+        }
+    }
+
+    //
+    // Inner classes
+    //
+
+    private class CountingImageView extends ImageView {
+
+        CountingImageView(Context context, AttributeSet attrs) {
+            super(context, attrs);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            measureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+    }
+
+    private class CountingTextView extends TextView {
+
+        CountingTextView(Context context, AttributeSet attrs) {
+            super(context, attrs);
+        }
+
+        @Override
+        protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+            measureCount++;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package randomlytyping.widget;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import randomlytyping.mldr.ui.ListItem;
+import randomlytyping.mldr.ui.ListRow;
+import randomlytyping.mldr.ui.SyntheticListSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests for {@link PagedListAdapter} keeping a bounded window of a long list and
+ * diffing refreshed pages.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PagedListAdapterTest {
+
+    private static final int ROW_COUNT = 100000;
+    private static final int ROW_HEIGHT = 50;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_PAGES = 4;
+
+    // Scrolls far enough to page through a fifth of the list.
+    private static final int SCROLLS = 200;
+    private static final int SCROLL_PX = 100 * ROW_HEIGHT;
+
+    // A row in the first page, which is on screen.
+    private static final int EDITED_POSITION = 3;
+
+    private static final long LOAD_TIMEOUT_MILLIS = 5000;
+
+    private Instrumentation instrumentation;
+    private RecyclerView list;
+    private EditableSource source;
+    private RowAdapter adapter;
+
+    @Before
+    public void setUp() {
+        instrumentation = InstrumentationRegistry.getInstrumentation();
+        final Context context = InstrumentationRegistry.getTargetContext();
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                source = new EditableSource();
+                adapter = new RowAdapter(source);
+                list = new RecyclerView(context);
+                list.setLayoutManager(new LinearLayoutManager(context));
+                list.setAdapter(adapter);
+            }
+        });
+        awaitLoads();
+    }
+
+    @Test
+    public void scroll_keepsLoadedItemsBounded() {
+        assertEquals(ROW_COUNT, adapter.getItemCount());
+
+        for (int i = 0; i < SCROLLS; i++) {
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    list.scrollBy(0, SCROLL_PX);
+                }
+            });
+            awaitLoads();
+
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    assertTrue(adapter.getLoadedItemCount() <= PAGE_SIZE * MAX_PAGES);
+                    // Every row on screen was rebound with its item once its page loaded.
+                    for (int j = 0; j < list.getChildCount(); j++) {
+                        assertNotNull(list.getChildAt(j).getTag());
+                    }
+                }
+            });
+        }
+    }
+
+    @Test
+    public void refresh_changedItem_dispatchesDiffForThatRow() {
+        final ChangeRecorder changes = new ChangeRecorder();
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                adapter.registerAdapterDataObserver(changes);
+                source.editedPosition = EDITED_POSITION;
+                adapter.refresh();
+            }
+        });
+
+        // The diff is computed in the background and posted back; wait for it to be applied.
+        final long deadline = SystemClock.uptimeMillis() + LOAD_TIMEOUT_MILLIS;
+        final boolean[] applied = new boolean[1];
+        do {
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    applied[0] = changes.changes > 0;
+                }
+            });
+            assertFalse("Refresh was not applied in time", SystemClock.uptimeMillis() > deadline);
+        } while (!applied[0]);
+        awaitLoads();
+
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                // Same id, different contents: one change, and nothing inserted, removed or moved.
+                assertEquals(1, changes.changes);
+                assertEquals(EDITED_POSITION, changes.changedStart);
+                assertEquals(1, changes.changedCount);
+                assertEquals(0, changes.structuralChanges);
+
+                final ListRow row = (ListRow) list.findViewHolderForAdapterPosition(
+                    EDITED_POSITION).itemView.getTag();
+                assertEquals(EDITED_POSITION, row.id);
+                assertEquals(EditableSource.getEditedItem(EDITED_POSITION), row.item);
+            }
+        });
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Lay out the list and wait until the pages its rows need have loaded and been bound.
+     */
+    private void awaitLoads() {
+        final long deadline = SystemClock.uptimeMillis() + LOAD_TIMEOUT_MILLIS;
+        final boolean[] loading = new boolean[1];
+        do {
+            instrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    if (list.isLayoutRequested()) {
+                        list.measure(
+                            View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                            View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+                        list.layout(0, 0, WIDTH, HEIGHT);
+                    }
+                    // The count is only known once the adapter's first refresh has posted back.
+                    loading[0] = adapter.getItemCount() == 0 || adapter.isLoading()
+                        || list.isLayoutRequested();
+                }
+            });
+            assertFalse("Pages did not load in time", SystemClock.uptimeMillis() > deadline);
+        } while (loading[0]);
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Synthetic list in which one row can be given a different item, as if it had been edited.
+     */
+    private static class EditableSource implements PagedListAdapter.DataSource<ListRow> {
+
+        private final SyntheticListSource rows = new SyntheticListSource(ROW_COUNT);
+
+        volatile int editedPosition = -1;
+
+        static ListItem getEditedItem(int position) {
+            return SyntheticListSource.getListItem(position + 1);
+        }
+
+        @Override
+        public int getCount() {
+            return rows.getCount();
+        }
+
+        @Override
+        public List<ListRow> load(int start, int count) {
+            final List<ListRow> loaded = rows.load(start, count);
+            final int edited = editedPosition;
+            if (edited >= start && edited < start + count) {
+                loaded.set(edited - start, new ListRow(edited, getEditedItem(edited)));
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Records the updates an adapter dispatches.
+     */
+    private static class ChangeRecorder extends RecyclerView.AdapterDataObserver {
+
+        int changes;
+        int changedStart;
+        int changedCount;
+        int structuralChanges;
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            changes++;
+            changedStart = positionStart;
+            changedCount = itemCount;
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            structuralChanges++;
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            structuralChanges++;
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            structuralChanges++;
+        }
+    }
+
+    /**
+     * Binds each row's item as its tag, so the test can see which rows are still blank.
+     */
+    private static class RowAdapter extends PagedListAdapter<ListRow, RecyclerView.ViewHolder> {
+
+        RowAdapter(EditableSource source) {
+            super(source, PAGE_SIZE, MAX_PAGES);
+        }
+
+        @Override
+        protected boolean areItemsTheSame(ListRow oldItem, ListRow newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        protected boolean areContentsTheSame(ListRow oldItem, ListRow newItem) {
+            return oldItem.item == newItem.item;
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+            final View view = new View(parent.getContext());
+            view.setLayoutParams(
+                new RecyclerView.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ROW_HEIGHT));
+            return new RecyclerView.ViewHolder(view) {
+            };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+            holder.itemView.setTag(getItem(position));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.widget.FrameLayout;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+
+/**
+ * Instrumentation benchmark for creating {@link SimpleListItem} rows by inflating
+ * {@code list_item_simple.xml} versus building them with {@link SimpleListItemFactory}, which
+ * reports rows created per second to logcat under the {@code SimpleListItemCreateBenchmark} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SimpleListItemCreateBenchmark {
+
+    private static final String TAG = "SimpleListItemCreateBenchmark";
+
+    private static final int WARMUP_ROWS = 50;
+    private static final int ROWS = 500;
+
+    @Test
+    @UiThreadTest
+    public void createRows() {
+        final Context context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        final LayoutInflater inflater = LayoutInflater.from(context);
+        final FrameLayout parent = new FrameLayout(context);
+
+        for (int i = 0; i < WARMUP_ROWS; i++) {
+            inflater.inflate(R.layout.list_item_simple, parent, false);
+        }
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < ROWS; i++) {
+            inflater.inflate(R.layout.list_item_simple, parent, false);
+        }
+        final long inflated = SystemClock.elapsedRealtimeNanos() - start;
+
+        final SimpleListItemFactory factory = new SimpleListItemFactory(context);
+        for (int i = 0; i < WARMUP_ROWS; i++) {
+            factory.create();
+        }
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < ROWS; i++) {
+            factory.create();
+        }
+        final long built = SystemClock.elapsedRealtimeNanos() - start;
+
+        Log.i(TAG, ROWS + " rows: " + rowsPerSecond(inflated) + " rows/s inflated, "
+            + rowsPerSecond(built) + " rows/s from the factory");
+    }
+
+    //
+    // Helpers
+    //
+
+    private static long rowsPerSecond(long nanos) {
+        return ROWS * 1000000000L / nanos;
+    }
+}
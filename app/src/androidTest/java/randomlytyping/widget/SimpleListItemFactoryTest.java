@@ -0,0 +1,52 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.LayoutInflater;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Instrumentation tests for {@link SimpleListItemFactory} building the same rows as
+ * {@code list_item_simple.xml}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SimpleListItemFactoryTest {
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = ListItemFixtures.getThemedContext();
+    }
+
+    @Test
+    @UiThreadTest
+    public void create_matchesInflatedRow() {
+        final SimpleListItem inflated = (SimpleListItem) LayoutInflater.from(context)
+            .inflate(R.layout.list_item_simple, null);
+        final SimpleListItem built = new SimpleListItemFactory(context).create();
+        assertTrue(built.isFixedHeight());
+
+        for (ListItem listItem : ListItem.values()) {
+            inflated.bind(listItem.iconResId, listItem.stringResId, listItem.descResId);
+            built.bind(listItem.iconResId, listItem.stringResId, listItem.descResId);
+            ListItemFixtures.measureAndLayout(inflated);
+            ListItemFixtures.measureAndLayout(built);
+
+            assertEquals(inflated.getMeasuredHeight(), built.getMeasuredHeight());
+            assertEquals(inflated.icon.getLeft(), built.icon.getLeft());
+            assertEquals(inflated.titleView.getLeft(), built.titleView.getLeft());
+            assertEquals(inflated.subtitleView.getTop(), built.subtitleView.getTop());
+        }
+    }
+}
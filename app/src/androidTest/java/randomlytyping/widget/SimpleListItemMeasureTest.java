@@ -0,0 +1,101 @@
+package randomlytyping.widget;
+
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import randomlytyping.mldr.R;
+import randomlytyping.mldr.ui.ListItem;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Instrumentation tests counting how many children of a {@link SimpleListItem} are measured while
+ * it is rebound and remeasured the way a scrolling list does.
+ */
+@RunWith(AndroidJUnit4.class)
+public class SimpleListItemMeasureTest {
+
+    private static final int REBINDS = 100;
+
+    private MeasureCountingInflater inflater;
+    private SimpleListItem item;
+
+    @Before
+    public void setUp() {
+        inflater = new MeasureCountingInflater(ListItemFixtures.getThemedContext());
+        item = (SimpleListItem) inflater.inflate(R.layout.list_item_simple, null);
+        item.setFixedHeight(false);
+    }
+
+    @Test
+    @UiThreadTest
+    public void rebindSameItem_measuresNoChildren() {
+        bind(ListItem.ITEM_01);
+        measureAndLayout();
+        final int initialCount = inflater.getMeasureCount();
+        assertEquals(3, initialCount);
+
+        for (int i = 0; i < REBINDS; i++) {
+            bind(ListItem.ITEM_01);
+            measureAndLayout();
+        }
+        assertEquals(initialCount, inflater.getMeasureCount());
+    }
+
+    @Test
+    @UiThreadTest
+    public void rebindDifferentItems_remeasuresOnlyChangedChildren() {
+        bind(ListItem.ITEM_01);
+        measureAndLayout();
+
+        // Every icon has the same size, so changing the drawable does not request layout and
+        // only the title and subtitle are remeasured.
+        final ListItem[] listItems = ListItem.values();
+        for (int i = 1; i <= REBINDS; i++) {
+            final int before = inflater.getMeasureCount();
+            bind(listItems[i % listItems.length]);
+            measureAndLayout();
+            assertEquals(2, inflater.getMeasureCount() - before);
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void fixedHeight_rebindDifferentItems_measuresNoChildren() {
+        item.setFixedHeight(true);
+        bind(ListItem.ITEM_01);
+        measureAndLayout();
+        final int initialCount = inflater.getMeasureCount();
+        final int height = item.getMeasuredHeight();
+
+        // Exactly sized text views only redraw when their text changes.
+        final ListItem[] listItems = ListItem.values();
+        for (int i = 1; i <= REBINDS; i++) {
+            bind(listItems[i % listItems.length]);
+            measureAndLayout();
+            assertEquals(height, item.getMeasuredHeight());
+        }
+        assertEquals(initialCount, inflater.getMeasureCount());
+    }
+
+    //
+    // Helpers
+    //
+
+    private void bind(ListItem listItem) {
+        item.bind(listItem.iconResId, listItem.stringResId, listItem.descResId);
+    }
+
+    /**
+     * Measure and lay out the item as a list would, forcing the item itself to be remeasured even
+     * when nothing inside it changed.
+     */
+    private void measureAndLayout() {
+        item.forceLayout();
+        ListItemFixtures.measureAndLayout(item);
+    }
+}
@@ -0,0 +1,61 @@
+package randomlytyping.widget;
+
+import android.content.res.Resources;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.ContextThemeWrapper;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.ref.WeakReference;
+
+import randomlytyping.mldr.R;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Instrumentation tests for the {@link TallyCounterStyle} cache.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TallyCounterStyleTest {
+
+    private static final int GC_ATTEMPTS = 10;
+
+    @Test
+    @UiThreadTest
+    public void obtain_sameTheme_sharesStyle() {
+        final ContextThemeWrapper context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        assertSame(TallyCounterStyle.obtain(context, null),
+            TallyCounterStyle.obtain(context, null));
+    }
+
+    @Test
+    @UiThreadTest
+    public void obtain_doesNotKeepThemeReachable() throws Exception {
+        final WeakReference<Resources.Theme> theme = obtainWithNewTheme();
+        for (int i = 0; i < GC_ATTEMPTS && theme.get() != null; i++) {
+            Runtime.getRuntime().gc();
+            Runtime.getRuntime().runFinalization();
+            Thread.sleep(10);
+        }
+        assertNull("The style cache kept the theme reachable", theme.get());
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Obtain a style in a new theme, leaving nothing but the cache to reference the theme.
+     */
+    private static WeakReference<Resources.Theme> obtainWithNewTheme() {
+        final ContextThemeWrapper context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        TallyCounterStyle.obtain(context, null);
+        return new WeakReference<>(context.getTheme());
+    }
+}
@@ -0,0 +1,96 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.annotation.UiThreadTest;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import butterknife.BindView;
+import butterknife.ButterKnife;
+import randomlytyping.mldr.R;
+
+/**
+ * Instrumentation microbenchmark resolving a list row's children with {@link ButterKnife#bind}
+ * versus direct lookups, as {@link SimpleListItem} does, which reports results to logcat under
+ * the {@code ViewBindingBenchmark} tag.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ViewBindingBenchmark {
+
+    private static final String TAG = "ViewBindingBenchmark";
+
+    private static final int WARMUP_BINDS = 1000;
+    private static final int BINDS = 10000;
+
+    @Test
+    @UiThreadTest
+    public void bindRow() {
+        final Context context = new ContextThemeWrapper(
+            InstrumentationRegistry.getTargetContext(), R.style.AppTheme);
+        final View row = LayoutInflater.from(context).inflate(R.layout.list_item_simple, null);
+
+        // The first bind of a class finds its generated binding by reflection.
+        long start = SystemClock.elapsedRealtimeNanos();
+        ButterKnife.bind(new ReflectiveHolder(), row);
+        final long firstBind = SystemClock.elapsedRealtimeNanos() - start;
+
+        for (int i = 0; i < WARMUP_BINDS; i++) {
+            ButterKnife.bind(new ReflectiveHolder(), row);
+            new DirectHolder(row);
+        }
+
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < BINDS; i++) {
+            ButterKnife.bind(new ReflectiveHolder(), row);
+        }
+        final long reflective = SystemClock.elapsedRealtimeNanos() - start;
+
+        start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < BINDS; i++) {
+            new DirectHolder(row);
+        }
+        final long direct = SystemClock.elapsedRealtimeNanos() - start;
+
+        Log.i(TAG, "first ButterKnife bind " + firstBind / 1000 + " us; " + BINDS + " binds: "
+            + reflective / 1000 + " us ButterKnife, " + direct / 1000 + " us direct");
+    }
+
+    //
+    // Inner classes
+    //
+
+    static class ReflectiveHolder {
+
+        @BindView(R.id.icon)
+        ImageView icon;
+
+        @BindView(R.id.title)
+        TextView title;
+
+        @BindView(R.id.subtitle)
+        TextView subtitle;
+    }
+
+    static class DirectHolder {
+
+        final ImageView icon;
+        final TextView title;
+        final TextView subtitle;
+
+        DirectHolder(View row) {
+            icon = row.findViewById(R.id.icon);
+            title = row.findViewById(R.id.title);
+            subtitle = row.findViewById(R.id.subtitle);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package randomlytyping.mldr;
+
+import android.app.Application;
+
+import randomlytyping.util.Typefaces;
+
+/**
+ * Application that starts decoding the bundled typefaces in the background as soon as the process
+ * starts, so the first counters on screen do not have to wait for them.
+ */
+public final class MldrApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        Typefaces.preload(this);
+    }
+}
@@ -1,39 +1,243 @@
 package randomlytyping.mldr.ui;
 
 import android.content.Context;
+import android.content.Intent;
+import android.content.res.Resources;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 import android.support.v7.widget.LinearLayoutManager;
 import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SwitchCompat;
+import android.view.Choreographer;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ImageView;
+import android.widget.CompoundButton;
 import android.widget.TextView;
 
-import butterknife.BindView;
-import butterknife.ButterKnife;
 import randomlytyping.mldr.R;
+import randomlytyping.util.Icons;
+import randomlytyping.util.Intents;
+import randomlytyping.widget.FlatListItem;
+import randomlytyping.widget.ListItemTextLayout;
+import randomlytyping.widget.ListItemTextPrefetcher;
+import randomlytyping.widget.PagedListAdapter;
+import randomlytyping.widget.PrewarmedViewPool;
+import randomlytyping.widget.SimpleListItem;
+import randomlytyping.widget.SimpleListItemFactory;
 
 /**
  * Activity with example of a custom ViewGroup.
+ *
+ * The list can switch between {@link SimpleListItem} rows and single-view {@link FlatListItem}
+ * rows, and shows the view count and scrolling frame time of each side by side. Its rows are
+ * paged in from a long synthetic list.
+ *
+ * Rows for the first scroll are created while the main thread is idle after launch, and are
+ * identified by stable ids. {@link Intents#getListIntent(Context, int, boolean, boolean)}
+ * overrides this tuning for comparison, and can switch the simple rows to drawing title and
+ * subtitle layouts built ahead of time on a background thread.
  */
 public class CustomViewGroupActivity extends AppCompatActivity {
 
+    // Row view types.
+    private static final int VIEW_TYPE_SIMPLE = 0;
+    private static final int VIEW_TYPE_FLAT = 1;
+
+    // Rows in the synthetic list.
+    private static final int ROW_COUNT = 100000;
+
+    //
+    // Fields
+    //
+
+    private RecyclerView mList;
+    private ListItemAdapter mAdapter;
+    private PrewarmedViewPool mViewPool;
+    private TextView mSimpleStatsView;
+    private TextView mFlatStatsView;
+
+    private final RowStats mSimpleStats = new RowStats();
+    private final RowStats mFlatStats = new RowStats();
+    private final FrameTimer mFrameTimer = new FrameTimer();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_custom_view_group);
 
-        final RecyclerView list = ButterKnife.findById(this, R.id.list);
-        list.setLayoutManager(new LinearLayoutManager(this));
-        list.setAdapter(new ListItemAdapter(this));
+        mSimpleStatsView = findViewById(R.id.simple_stats);
+        mFlatStatsView = findViewById(R.id.flat_stats);
+
+        final Intent intent = getIntent();
+        final int prewarmRows = intent.getIntExtra(Intents.EXTRA_PREWARM_ROWS,
+            getResources().getInteger(R.integer.list_prewarm_rows));
+        final boolean itemPrefetch = intent.getBooleanExtra(Intents.EXTRA_ITEM_PREFETCH, true);
+        final boolean precomputedText =
+            intent.getBooleanExtra(Intents.EXTRA_PRECOMPUTED_TEXT, false);
+
+        mAdapter = new ListItemAdapter(this, new SyntheticListSource(ROW_COUNT),
+            precomputedText);
+        final LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+        // Lets RecyclerView bind the row about to scroll into view between frames.
+        layoutManager.setItemPrefetchEnabled(itemPrefetch);
+        mViewPool = new PrewarmedViewPool();
+        mList = findViewById(R.id.list);
+        mList.setLayoutManager(layoutManager);
+        mList.setRecycledViewPool(mViewPool);
+        // The list fills the screen and its fixed-height rows never change its size, so content
+        // changes do not need to lay out the whole list again. This is a RecyclerView setting,
+        // not an adapter one, so it is set here with the rest of the list setup, and assumes the
+        // adapter only ever binds fixed-height rows.
+        mList.setHasFixedSize(true);
+        mList.setAdapter(mAdapter);
+        mViewPool.prewarm(mList, VIEW_TYPE_SIMPLE, prewarmRows);
+        mList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+                if (newState != RecyclerView.SCROLL_STATE_IDLE) {
+                    mFrameTimer.start();
+                } else {
+                    getCurrentStats().frameMillis = mFrameTimer.stop();
+                    updateStats();
+                }
+            }
+        });
+
+        final SwitchCompat flatRows = findViewById(R.id.flat_rows);
+        flatRows.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener() {
+            @Override
+            public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+                mAdapter.setFlat(isChecked);
+                updateStats();
+            }
+        });
+
+        updateStats();
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        mFrameTimer.stop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mViewPool.cancelPrewarm();
+        mAdapter.cancelTextPrefetch();
+        if (isChangingConfigurations()) {
+            // Icons are cached per density and night mode. Drop the old configuration's now rather
+            // than waiting for the bounded cache to evict them; a rotation reloads them once.
+            Icons.clear();
+        }
+    }
+
+    //
+    // Stats
+    //
+
+    private RowStats getCurrentStats() {
+        return mAdapter.isFlat() ? mFlatStats : mSimpleStats;
+    }
+
+    /**
+     * Count the views in the list once it has laid out its current rows, then show the stats.
+     */
+    private void updateStats() {
+        mList.post(new Runnable() {
+            @Override
+            public void run() {
+                getCurrentStats().viewCount = countViews(mList) - 1;
+                mSimpleStatsView.setText(mSimpleStats.format(R.string.row_type_simple));
+                mFlatStatsView.setText(mFlatStats.format(R.string.row_type_flat));
+            }
+        });
+    }
+
+    /**
+     * @return Number of views in the hierarchy rooted at {@code view}, including itself.
+     */
+    private static int countViews(View view) {
+        int count = 1;
+        if (view instanceof ViewGroup) {
+            final ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                count += countViews(group.getChildAt(i));
+            }
+        }
+        return count;
     }
 
     //
     // Inner classes
     //
 
+    /**
+     * Latest view count and frame time measured for one kind of row.
+     */
+    private class RowStats {
+
+        // Views in the list, not counting the list itself.
+        int viewCount;
+
+        // Average frame time of the last scroll, or 0 if the list has not been scrolled.
+        float frameMillis;
+
+        CharSequence format(int nameResId) {
+            final String name = getString(nameResId);
+            return frameMillis > 0
+                ? getString(R.string.row_stats_frames, name, viewCount, frameMillis)
+                : getString(R.string.row_stats, name, viewCount);
+        }
+    }
+
+    /**
+     * Measures the average time between frames while it is running.
+     */
+    private static class FrameTimer implements Choreographer.FrameCallback {
+
+        private boolean mRunning;
+        private long mFirstFrameNanos;
+        private long mLastFrameNanos;
+        private int mFrames;
+
+        void start() {
+            if (mRunning) {
+                return;
+            }
+            mRunning = true;
+            mFirstFrameNanos = 0;
+            mFrames = 0;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        /**
+         * @return Average milliseconds per frame since {@link #start()}, or 0 if fewer than two
+         * frames were drawn.
+         */
+        float stop() {
+            if (!mRunning) {
+                return 0;
+            }
+            mRunning = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+            return mFrames > 0 ? (mLastFrameNanos - mFirstFrameNanos) / 1e6f / mFrames : 0;
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mFirstFrameNanos == 0) {
+                mFirstFrameNanos = frameTimeNanos;
+            } else {
+                mFrames++;
+            }
+            mLastFrameNanos = frameTimeNanos;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
     /**
      * {@link RecyclerView.ViewHolder} subclass that holds references to
      * views for each layout example.
@@ -43,14 +247,8 @@ public class CustomViewGroupActivity extends AppCompatActivity {
         // Fields
         //
 
-        @BindView(R.id.icon)
-        ImageView mIconView;
-
-        @BindView(R.id.title)
-        TextView mTitleView;
-
-        @BindView(R.id.subtitle)
-        TextView mSubtitleView;
+        final SimpleListItem mListItemView;
+        final FlatListItem mFlatListItemView;
 
         //
         // Constructors
@@ -64,28 +262,57 @@ public class CustomViewGroupActivity extends AppCompatActivity {
         ViewHolder(View itemView) {
             super(itemView);
 
-            ButterKnife.bind(this, itemView);
-
+            mListItemView = itemView instanceof SimpleListItem ? (SimpleListItem) itemView : null;
+            mFlatListItemView = itemView instanceof FlatListItem ? (FlatListItem) itemView : null;
         }
 
         //
         // Getters/Setters
         //
 
+        /**
+         * @param item Item to show, or null to leave the row blank while its page loads.
+         */
         void setListItem(ListItem item) {
-            mIconView.setImageResource(item.iconResId);
-            mTitleView.setText(item.stringResId);
-            mSubtitleView.setText(item.descResId);
+            setListItem(item, null);
+        }
+
+        /**
+         * @param item       Item to show, or null to leave the row blank while its page loads.
+         * @param textLayout The item's title and subtitle layouts if they were built ahead of
+         *                   time, otherwise null.
+         */
+        void setListItem(ListItem item, ListItemTextLayout textLayout) {
+            // A blank row keeps its size, so hiding it does not request layout.
+            if (item == null) {
+                itemView.setVisibility(View.INVISIBLE);
+                return;
+            }
+            itemView.setVisibility(View.VISIBLE);
+
+            // Only touches the views whose content changed, so rebinding the same item does not
+            // remeasure anything.
+            if (mListItemView != null && textLayout != null) {
+                mListItemView.bind(item.iconResId, textLayout);
+            } else if (mListItemView != null) {
+                mListItemView.bind(item.iconResId, item.stringResId, item.descResId);
+            } else {
+                mFlatListItemView.bind(item.iconResId, item.stringResId, item.descResId);
+            }
         }
     }
 
 
-    class ListItemAdapter extends RecyclerView.Adapter<ViewHolder> {
+    class ListItemAdapter extends PagedListAdapter<ListRow, ViewHolder> {
 
         //
         // Fields
         //
         private final LayoutInflater mInflater;
+        private final SimpleListItemFactory mSimpleItemFactory;
+        // Builds text layouts for simple rows ahead of binding, or null if they use text views.
+        private final ListItemTextPrefetcher mTextPrefetcher;
+        private boolean mFlat;
 
         //
         // Constructors
@@ -94,29 +321,126 @@ public class CustomViewGroupActivity extends AppCompatActivity {
         /**
          * Constructor.
          *
-         * @param context The current context.
+         * @param context         The current context.
+         * @param source          Source of the list's rows.
+         * @param precomputedText Whether simple rows draw title and subtitle layouts built on a
+         *                        background thread instead of using text views.
          */
-        ListItemAdapter(Context context) {
+        ListItemAdapter(Context context, final SyntheticListSource source,
+                        boolean precomputedText) {
+            super(source);
             mInflater = LayoutInflater.from(context);
+            mSimpleItemFactory = new SimpleListItemFactory(context);
+            final Resources res = context.getResources();
+            mTextPrefetcher = !precomputedText ? null
+                : new ListItemTextPrefetcher(new ListItemTextPrefetcher.Source() {
+                    // The synthetic rows' text is known without loading their pages, so it can
+                    // be read on the prefetcher's thread.
+                    @Override
+                    public int getCount() {
+                        return source.getCount();
+                    }
+
+                    @Override
+                    public CharSequence getTitle(int position) {
+                        return res.getText(SyntheticListSource.getListItem(position).stringResId);
+                    }
+
+                    @Override
+                    public CharSequence getSubtitle(int position) {
+                        return res.getText(SyntheticListSource.getListItem(position).descResId);
+                    }
+                });
+            // Lets notifyDataSetChanged() keep the rows on screen by id, rather than recycling
+            // every one of them.
+            setHasStableIds(true);
+        }
+
+        //
+        // Getters/Setters
+        //
+
+        boolean isFlat() {
+            return mFlat;
+        }
+
+        /**
+         * @return Prefetcher building the simple rows' text layouts, or null if they use text
+         * views.
+         */
+        ListItemTextPrefetcher getTextPrefetcher() {
+            return mTextPrefetcher;
+        }
+
+        /**
+         * Stop building text layouts in the background.
+         */
+        void cancelTextPrefetch() {
+            if (mTextPrefetcher != null) {
+                mTextPrefetcher.clear();
+            }
+        }
+
+        /**
+         * Switch between {@link SimpleListItem} and {@link FlatListItem} rows.
+         */
+        void setFlat(boolean flat) {
+            if (mFlat != flat) {
+                mFlat = flat;
+                notifyDataSetChanged();
+            }
         }
 
         //
-        // RecyclerView.Adapter<ViewHolder> implementation
+        // PagedListAdapter<ListRow, ViewHolder> implementation
         //
 
         @Override
-        public int getItemCount() {
-            return ListItem.getItemCount();
+        protected boolean areItemsTheSame(ListRow oldItem, ListRow newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        protected boolean areContentsTheSame(ListRow oldItem, ListRow newItem) {
+            return oldItem.item == newItem.item;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            // Known without loading the row's page: synthetic rows never move, so a row's id is
+            // its position.
+            return SyntheticListSource.getRowId(position);
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return mFlat ? VIEW_TYPE_FLAT : VIEW_TYPE_SIMPLE;
         }
 
         @Override
         public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-            return new ViewHolder(mInflater.inflate(R.layout.list_item_simple, parent, false));
+            if (viewType == VIEW_TYPE_FLAT) {
+                return new ViewHolder(mInflater.inflate(R.layout.list_item_flat, parent, false));
+            }
+            if (mTextPrefetcher != null) {
+                return new ViewHolder(
+                    mInflater.inflate(R.layout.list_item_precomputed, parent, false));
+            }
+            // Built in code, which skips parsing list_item_simple.xml for every row.
+            return new ViewHolder(mSimpleItemFactory.create());
         }
 
         @Override
         public void onBindViewHolder(ViewHolder holder, int position) {
-            holder.setListItem(ListItem.getItem(position));
+            final ListRow row = getItem(position);
+            if (row != null && mTextPrefetcher != null && holder.mListItemView != null) {
+                // RecyclerView also binds rows ahead of time while prefetching, so this both
+                // hands over layouts built for this row and starts on the rows after it.
+                holder.setListItem(row.item, mTextPrefetcher.onBind(position,
+                    holder.mListItemView.getTextLayoutSpec()));
+                return;
+            }
+            holder.setListItem(row != null ? row.item : null);
         }
     }
 }
@@ -0,0 +1,16 @@
+package randomlytyping.mldr.ui;
+
+/**
+ * One row of the example list: an example item and its stable id, which DiffUtil also matches
+ * rows by.
+ */
+public final class ListRow {
+
+    public final long id;
+    public final ListItem item;
+
+    public ListRow(long id, ListItem item) {
+        this.id = id;
+        this.item = item;
+    }
+}
@@ -0,0 +1,50 @@
+package randomlytyping.mldr.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import randomlytyping.widget.PagedListAdapter;
+
+/**
+ * Data source of an arbitrarily long list that cycles through the example items, for exercising
+ * lists far larger than the four examples.
+ */
+public final class SyntheticListSource implements PagedListAdapter.DataSource<ListRow> {
+
+    private final int count;
+
+    /**
+     * @param count Number of rows in the list.
+     */
+    public SyntheticListSource(int count) {
+        this.count = count;
+    }
+
+    /**
+     * @return Stable id of the row at a position, which is known without loading the row.
+     */
+    public static long getRowId(int position) {
+        return position;
+    }
+
+    /**
+     * @return Item shown by the row at a position, which is known without loading the row.
+     */
+    public static ListItem getListItem(int position) {
+        return ListItem.getItem(position % ListItem.getItemCount());
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public List<ListRow> load(int start, int count) {
+        final List<ListRow> rows = new ArrayList<>(count);
+        for (int position = start; position < start + count; position++) {
+            rows.add(new ListRow(getRowId(position), getListItem(position)));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,46 @@
+package randomlytyping.util;
+
+import android.os.Process;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Helper class for creating executors that do work off the main thread without competing with
+ * it for the CPU.
+ */
+public final class BackgroundExecutors {
+
+    /**
+     * Create an executor that runs tasks one at a time on a single background-priority thread.
+     *
+     * @param threadName Name of the thread, as shown in traces and thread dumps.
+     * @return The executor.
+     */
+    public static ExecutorService newSingleThreadExecutor(final String threadName) {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                return new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                        runnable.run();
+                    }
+                }, threadName);
+            }
+        });
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BackgroundExecutors() {
+        throw new AssertionError("Cannot instantiate " + getClass().getName());
+    }
+}
@@ -0,0 +1,81 @@
+package randomlytyping.util;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.DrawableRes;
+import android.util.LruCache;
+
+import randomlytyping.widget.MaskDrawable;
+
+/**
+ * Keeps the most recently used list icons in a bounded cache shared by every list row.
+ *
+ * The icons are the alpha masks generated by {@code icons.gradle}, decoded as
+ * {@link MaskDrawable}s. Each is decoded once per screen density and night mode, the two
+ * configurations the icon resources vary by, and the cache hands out new drawables sharing its
+ * mask bitmap.
+ */
+public final class Icons {
+
+    // Upper bound on the number of cached icons, more than any list shows at once.
+    private static final int MAX_CACHED_ICONS = 16;
+
+    // Drawable states by screen density, night mode and resource id. Main thread only.
+    private static final LruCache<Long, Drawable.ConstantState> CACHE =
+        new LruCache<>(MAX_CACHED_ICONS);
+
+    /**
+     * Get a drawable for an icon, loading it only if it is not cached for the current density.
+     *
+     * @param context   Context whose resources to decode the icon from.
+     * @param iconResId Icon mask drawable.
+     * @return A new drawable, which can be mutated without affecting other users of the icon.
+     */
+    public static Drawable getDrawable(Context context, @DrawableRes int iconResId) {
+        final Resources res = context.getResources();
+        final int nightMode = res.getConfiguration().uiMode & Configuration.UI_MODE_NIGHT_MASK;
+        final int configuration = res.getDisplayMetrics().densityDpi << 8 | nightMode;
+        final long key = ((long) configuration << 32) | (iconResId & 0xffffffffL);
+        Drawable.ConstantState state = CACHE.get(key);
+        if (state == null) {
+            state = MaskDrawable.decode(res, iconResId).getConstantState();
+            CACHE.put(key, state);
+        }
+        return state.newDrawable(res);
+    }
+
+    /**
+     * Forget every cached icon, e.g. once an activity is recreated for a new configuration and
+     * the icons of the old one are no longer needed. Does not reset the hit and miss counts.
+     */
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * @return Number of times an icon was found in the cache.
+     */
+    public static int getHitCount() {
+        return CACHE.hitCount();
+    }
+
+    /**
+     * @return Number of times an icon had to be decoded.
+     */
+    public static int getMissCount() {
+        return CACHE.missCount();
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Icons() {
+        throw new AssertionError("Cannot instantiate " + getClass().getName());
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.support.annotation.LayoutRes;
 
+import randomlytyping.mldr.ui.CustomViewGroupActivity;
 import randomlytyping.mldr.ui.TallyCounterActivity;
 
 /**
@@ -13,6 +14,9 @@ public final class Intents {
 
     public static final String EXTRA_LAYOUT_RES_ID = "layoutResId";
     public static final String EXTRA_TOAST_ON_CLICK = "toastOnClick";
+    public static final String EXTRA_PREWARM_ROWS = "prewarmRows";
+    public static final String EXTRA_ITEM_PREFETCH = "itemPrefetch";
+    public static final String EXTRA_PRECOMPUTED_TEXT = "precomputedText";
 
     public static Intent getDemoIntent(Context context, @LayoutRes int layoutResId,
                                        boolean toastOnClick) {
@@ -22,6 +26,18 @@ public final class Intents {
         return intent;
     }
 
+    /**
+     * Intent for the list demo with its tuning overridden, for comparing against the defaults.
+     */
+    public static Intent getListIntent(Context context, int prewarmRows, boolean itemPrefetch,
+                                       boolean precomputedText) {
+        final Intent intent = new Intent(context, CustomViewGroupActivity.class);
+        intent.putExtra(EXTRA_PREWARM_ROWS, prewarmRows);
+        intent.putExtra(EXTRA_ITEM_PREFETCH, itemPrefetch);
+        intent.putExtra(EXTRA_PRECOMPUTED_TEXT, precomputedText);
+        return intent;
+    }
+
     //
     // Constructors
     //
@@ -1,20 +1,211 @@
 package randomlytyping.util;
 
 import android.content.Context;
+import android.content.res.AssetManager;
 import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Trace;
+import android.util.Log;
+import android.util.LruCache;
 
-import uk.co.chrisjenx.calligraphy.TypefaceUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
 
 /**
+ * Loads the typefaces bundled in {@code assets/fonts} and keeps the most recently used ones in a
+ * bounded cache.
  *
+ * Decoding a font file takes long enough to drop frames, so {@link #preload(Context)} decodes the
+ * counter typefaces on a background thread at app start, and views can use
+ * {@link #requestTypeface(Context, String, Callback)} to draw with a fallback typeface until
+ * theirs is ready. Callbacks are held strongly until the load completes, so views should cancel
+ * theirs with {@link #cancelRequest(String, Callback)} when they detach.
  */
-public class Typefaces {
+public final class Typefaces {
+
+    private static final String TAG = "Typefaces";
 
     public static final String BLACKOUT_TWO_AM = "BlackoutTwoAM.ttf";
     public static final String BLACKOUT_MIDNIGHT = "BlackoutMidnight.ttf";
     public static final String HK_GROTESK = "HKGroteskMedium.otf";
 
+    // Digit-only subset generated at build time (see fonts.gradle), for tally counters, which
+    // only ever draw digits.
+    public static final String HK_GROTESK_DIGITS = "HKGroteskMedium-digits.otf";
+
+    // Upper bound on the number of cached typefaces.
+    private static final int MAX_CACHED_TYPEFACES = 8;
+
+    private static final LruCache<String, Typeface> CACHE =
+        new LruCache<>(MAX_CACHED_TYPEFACES);
+
+    // Callbacks waiting on each typeface that is loading in the background. Also guards cache
+    // insertions made by background loads.
+    private static final HashMap<String, ArrayList<Callback>> PENDING = new HashMap<>();
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static ExecutorService executor;
+
+    /**
+     * Callback notified on the main thread once a requested typeface has loaded.
+     */
+    public interface Callback {
+
+        /**
+         * Called on the main thread when the typeface has loaded. Not called if it failed to load.
+         *
+         * @param typeface The loaded typeface.
+         */
+        void onTypefaceLoaded(Typeface typeface);
+    }
+
+    private Typefaces() {
+        throw new AssertionError("Cannot instantiate " + getClass().getName());
+    }
+
+    /**
+     * Get a bundled typeface, loading it on the calling thread if it is not cached.
+     *
+     * @param context  Context used to access the app's assets.
+     * @param typeface File name of the typeface in {@code assets/fonts}.
+     * @return The typeface, or null if it could not be loaded.
+     */
     public static Typeface getTypeface(Context context, String typeface) {
-        return TypefaceUtils.load(context.getAssets(), "fonts/" + typeface);
+        Typeface loaded = CACHE.get(typeface);
+        if (loaded == null) {
+            loaded = load(context.getAssets(), typeface);
+            if (loaded != null) {
+                CACHE.put(typeface, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Get a bundled typeface if it is cached, otherwise start loading it in the background.
+     *
+     * @param context  Context used to access the app's assets.
+     * @param typeface File name of the typeface in {@code assets/fonts}.
+     * @param callback Notified once the typeface loads if it is not cached, or null.
+     * @return The cached typeface, or null if it is loading and the caller should draw with a
+     * fallback until {@code callback} is notified.
+     */
+    public static Typeface requestTypeface(Context context, final String typeface,
+                                           Callback callback) {
+        final Typeface cached = CACHE.get(typeface);
+        if (cached != null) {
+            return cached;
+        }
+        final AssetManager assets = context.getApplicationContext().getAssets();
+        synchronized (PENDING) {
+            // Check again, in case a background load finished since the first look.
+            final Typeface loaded = CACHE.get(typeface);
+            if (loaded != null) {
+                return loaded;
+            }
+            ArrayList<Callback> callbacks = PENDING.get(typeface);
+            if (callbacks == null) {
+                callbacks = new ArrayList<>();
+                PENDING.put(typeface, callbacks);
+                getExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        loadInBackground(assets, typeface);
+                    }
+                });
+            }
+            if (callback != null) {
+                callbacks.add(callback);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stop notifying {@code callback} about a typeface requested with
+     * {@link #requestTypeface(Context, String, Callback)}. Takes effect immediately when called
+     * on the main thread. The load itself still completes, and the typeface is cached.
+     *
+     * @param typeface File name of the requested typeface.
+     * @param callback The callback passed with the request.
+     */
+    public static void cancelRequest(String typeface, Callback callback) {
+        synchronized (PENDING) {
+            final ArrayList<Callback> callbacks = PENDING.get(typeface);
+            if (callbacks != null) {
+                callbacks.remove(callback);
+            }
+        }
+    }
+
+    /**
+     * Start loading the typefaces tally counters draw with in the background, so that counters
+     * created later find them cached. Counters only draw digits, so only the digit subset is
+     * preloaded. Other typefaces are loaded when first requested.
+     *
+     * @param context Context used to access the app's assets.
+     */
+    public static void preload(Context context) {
+        requestTypeface(context, HK_GROTESK_DIGITS, null);
+    }
+
+    /**
+     * Forget every cached typeface. Loads already in progress still complete.
+     */
+    static void clearCache() {
+        CACHE.evictAll();
+    }
+
+    //
+    // Loading
+    //
+
+    private static void loadInBackground(AssetManager assets, final String typeface) {
+        final Typeface loaded = load(assets, typeface);
+        synchronized (PENDING) {
+            if (loaded == null) {
+                PENDING.remove(typeface);
+                return;
+            }
+            // Requests from now on find the typeface cached, so no more callbacks are added.
+            CACHE.put(typeface, loaded);
+        }
+        MAIN_HANDLER.post(new Runnable() {
+            @Override
+            public void run() {
+                // Taken on the main thread, so that a callback cancelled on the main thread
+                // before this runs is never notified.
+                final ArrayList<Callback> callbacks;
+                synchronized (PENDING) {
+                    callbacks = PENDING.remove(typeface);
+                }
+                for (int i = 0; i < callbacks.size(); i++) {
+                    callbacks.get(i).onTypefaceLoaded(loaded);
+                }
+            }
+        });
+    }
+
+    private static Typeface load(AssetManager assets, String typeface) {
+        // Shows up as its own section in systrace, so load cost is visible in first-frame traces.
+        Trace.beginSection("Typefaces.load");
+        try {
+            return Typeface.createFromAsset(assets, "fonts/" + typeface);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Could not load typeface " + typeface, e);
+            return null;
+        } finally {
+            Trace.endSection();
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = BackgroundExecutors.newSingleThreadExecutor("TypefaceLoader");
+        }
+        return executor;
     }
 }
@@ -0,0 +1,720 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.support.v4.content.ContextCompat;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AnimationUtils;
+
+import randomlytyping.mldr.R;
+
+/**
+ * Count state, measurement and drawing shared by every version of our tally counter component.
+ *
+ * The base class owns the count and its formatted digits, the pooled {@link CounterPaints} and
+ * the matching {@link DigitMetrics}, the cached measurement, the roll animation, the digit atlas,
+ * the chrome cache and the {@link TallyCounterModel} binding. Each subclass only adds what its
+ * version of the component demonstrates: the earlier versions override measuring and drawing
+ * with simpler code, and the later ones add attributes or interaction.
+ */
+public abstract class BaseTallyCounter extends View implements TallyCounter {
+
+    static final int DEFAULT_MAX_COUNT = 9999;
+
+    // State variables
+    private long count;
+    private long maxCount = DEFAULT_MAX_COUNT;
+    private CountFormatter countFormatter =
+        new CountFormatter(CountFormatter.digitCount(DEFAULT_MAX_COUNT));
+    private char[] displayedCount;
+
+    // Roll animation state, or null when count changes snap into place.
+    private DigitRoller digitRoller;
+
+    // Drawing variables
+    private CounterPaints paints;
+    private DigitMetrics digitMetrics;
+    private DigitAtlas digitAtlas;
+    private int renderMode = RENDER_MODE_TEXT;
+
+    private final RectF backgroundRect = new RectF();
+    private final float[] digitSpan = new float[2];
+
+    private float cornerRadius;
+
+    // Background and baseline recorded once per size, or null when drawn every frame.
+    private boolean chromeCacheEnabled;
+    private Bitmap chromeBitmap;
+
+    // Measurement variables
+    private final MeasureCache measureCache = new MeasureCache();
+    private int boundsPolicy = BOUNDS_FIXED;
+    private float measuredTextWidth;
+
+    // Model that other threads count into, and the callbacks that display its count once per
+    // frame. The choreographer is set while the counter is attached; it is volatile because the
+    // model observer reads it on incrementing threads.
+    private TallyCounterModel model;
+    private volatile Choreographer choreographer;
+
+    private final TallyCounterModel.Observer modelObserver = new TallyCounterModel.Observer() {
+        @Override
+        public void onCountChanged(TallyCounterModel model) {
+            // Called on the incrementing thread; Choreographer accepts callbacks from any thread.
+            // Null if the counter detached while this notification was on its way, in which case
+            // attaching again reads the count.
+            final Choreographer choreographer = BaseTallyCounter.this.choreographer;
+            if (choreographer != null) {
+                choreographer.postFrameCallback(modelFrameCallback);
+            }
+        }
+    };
+
+    private final Choreographer.FrameCallback modelFrameCallback =
+        new Choreographer.FrameCallback() {
+            @Override
+            public void doFrame(long frameTimeNanos) {
+                if (model != null) {
+                    setLongCount(model.acknowledge(modelObserver));
+                }
+            }
+        };
+
+    //
+    // Constructors/Initialization
+    //
+
+    /**
+     * Constructor that sets up the default style. Subclasses that read styleable attributes
+     * replace it with {@link #applyStyle(TallyCounterStyle, Typeface)}.
+     *
+     * @param context The Context the view is running in, through which it can
+     *                access the current theme, resources, etc.
+     * @param attrs   The attributes of the XML tag that is inflating the view.
+     */
+    BaseTallyCounter(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        // Share paints with every other counter in the default style.
+        setPaints(CounterPaints.obtain(
+            ContextCompat.getColor(context, R.color.colorPrimary),
+            ContextCompat.getColor(context, R.color.colorAccent),
+            1f,
+            ContextCompat.getColor(context, android.R.color.white),
+            Math.round(64f * getResources().getDisplayMetrics().scaledDensity),
+            null));
+
+        // Initialize drawing measurements.
+        cornerRadius = Math.round(2f * getResources().getDisplayMetrics().density);
+
+        // Format the initial count directly; subclass state is not initialized yet.
+        displayedCount = countFormatter.format(0);
+    }
+
+    /**
+     * Configure the counter from resolved {@code TallyCounter} attributes.
+     *
+     * @param style    Resolved attributes.
+     * @param typeface Typeface to draw the count with, or null for the default.
+     */
+    final void applyStyle(TallyCounterStyle style, Typeface typeface) {
+        // Share paints with every counter styled with the same attributes.
+        setPaints(CounterPaints.obtain(style.backgroundColor, style.baselineColor,
+            style.baselineWidth, style.textColor, style.textSize, typeface));
+        cornerRadius = style.cornerRadius;
+
+        // Size the digit buffer for the maximum count.
+        setMaxCount(style.maxCount);
+
+        if (style.animateChanges) {
+            digitRoller = new DigitRoller(countFormatter.getWidth(),
+                DigitRoller.DEFAULT_DURATION_MS);
+        }
+        boundsPolicy = style.boundsPolicy;
+        chromeCacheEnabled = style.cacheChrome;
+        renderMode = style.renderMode;
+
+        // Load the digit atlas now that the paints are configured.
+        updateDigitAtlas();
+    }
+
+    //
+    // TallyCounter interface
+    //
+
+    @Override
+    public void reset() {
+        if (model != null) {
+            model.reset();
+            return;
+        }
+        setCount(0);
+    }
+
+    @Override
+    public void increment() {
+        incrementBy(1);
+    }
+
+    @Override
+    public void incrementBy(int delta) {
+        if (model != null) {
+            model.add(delta);
+            return;
+        }
+        // Clamp before adding so that a count near Long.MAX_VALUE cannot overflow.
+        setLongCount(delta > maxCount - count ? maxCount : count + delta);
+    }
+
+    @Override
+    public void setCount(int count) {
+        setLongCount(count);
+    }
+
+    @Override
+    public void setLongCount(long count) {
+        count = Math.max(0, Math.min(count, maxCount));
+        if (digitRoller != null && count != this.count) {
+            // Roll away from the digits on screen, retargeting any roll already running.
+            digitRoller.start(countFormatter.getDigits(),
+                AnimationUtils.currentAnimationTimeMillis());
+        }
+        this.count = count;
+        final float oldTextWidth = digitMetrics.measureText(countFormatter.getDigits());
+        // Write the digits into the reused buffer; no strings are created here.
+        this.displayedCount = countFormatter.format(count);
+        onDisplayedCountChanged(oldTextWidth);
+    }
+
+    @Override
+    public int getCount() {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getLongCount() {
+        return count;
+    }
+
+    @Override
+    public long getMaxCount() {
+        return maxCount;
+    }
+
+    @Override
+    public void setMaxCount(long maxCount) {
+        if (maxCount < 0) {
+            throw new IllegalArgumentException("maxCount must not be negative: " + maxCount);
+        }
+        this.maxCount = maxCount;
+        countFormatter = new CountFormatter(CountFormatter.digitCount(maxCount),
+            countFormatter.getZeroDigit());
+        if (digitRoller != null) {
+            // Size the roller for the new digit cells before anything can start a roll.
+            digitRoller = new DigitRoller(countFormatter.getWidth(),
+                DigitRoller.DEFAULT_DURATION_MS);
+        }
+        // Clamp before formatting, so that the new cells snap to the count instead of rolling
+        // in from the blank buffer.
+        count = Math.min(count, maxCount);
+        setLongCount(count);
+        measureCache.clear();
+        requestLayout();
+        invalidate();
+    }
+
+    //
+    // Subclass hooks
+    //
+
+    /**
+     * Called after the displayed digits change. Redraws the digits that changed and, under
+     * {@link #BOUNDS_VARIABLE}, requests a layout pass once the count no longer fits.
+     *
+     * @param oldTextWidth Width of the previously displayed digits.
+     */
+    void onDisplayedCountChanged(float oldTextWidth) {
+        invalidateChangedDigits(oldTextWidth);
+
+        // Under the variable bounds policy, only relayout once the count no longer fits.
+        if (boundsPolicy == BOUNDS_VARIABLE
+            && digitMetrics.measureText(displayedCount) > measuredTextWidth) {
+            measureCache.clear();
+            requestLayout();
+        }
+    }
+
+    //
+    // Getters/Setters
+    //
+
+    /**
+     * @return Formatter holding the displayed digits and which of them last changed.
+     */
+    CountFormatter getCountFormatter() {
+        return countFormatter;
+    }
+
+    /**
+     * @return Digits of the current count, padded to the width of the maximum count.
+     */
+    char[] getDisplayedCount() {
+        return displayedCount;
+    }
+
+    /**
+     * @return Shared paints this counter draws with. Never modify them.
+     */
+    CounterPaints getPaints() {
+        return paints;
+    }
+
+    /**
+     * Switch to a different shared paint configuration and look up digit metrics for it.
+     * Callers remain responsible for requesting layout and redrawing.
+     */
+    final void setPaints(CounterPaints paints) {
+        this.paints = paints;
+        digitMetrics = DigitMetrics.obtain(paints.getNumberPaint(), countFormatter.getZeroDigit());
+    }
+
+    /**
+     * @return Digit metrics for the current paints.
+     */
+    DigitMetrics getDigitMetrics() {
+        return digitMetrics;
+    }
+
+    /**
+     * Replace the digit metrics looked up for the current paints, for tests that need digits of
+     * known widths. Drawing still uses the paints.
+     */
+    final void setDigitMetrics(DigitMetrics digitMetrics) {
+        this.digitMetrics = digitMetrics;
+    }
+
+    /**
+     * @return The UI thread's Choreographer while the counter is attached, otherwise null.
+     */
+    Choreographer getChoreographer() {
+        return choreographer;
+    }
+
+    /**
+     * Set the size of the count text.
+     *
+     * @param textSize Text size in pixels.
+     */
+    public void setTextSize(float textSize) {
+        setPaints(paints.withTextSize(textSize));
+        updateDigitAtlas();
+    }
+
+    /**
+     * Set the typeface used to draw the count.
+     *
+     * @param typeface The typeface to use.
+     */
+    public void setTypeface(Typeface typeface) {
+        setPaints(paints.withTypeface(typeface));
+        updateDigitAtlas();
+    }
+
+    /**
+     * Display the count of {@code model}, which may be incremented from any thread. Changes are
+     * coalesced so the counter redraws at most once per frame. While a model is set,
+     * {@link #increment()} and {@link #reset()} are forwarded to it.
+     *
+     * @param model The model to display, or null to count locally.
+     */
+    public void setModel(TallyCounterModel model) {
+        if (this.model != null) {
+            this.model.removeObserver(modelObserver);
+            if (choreographer != null) {
+                choreographer.removeFrameCallback(modelFrameCallback);
+            }
+        }
+        this.model = model;
+        if (model != null) {
+            if (isAttachedToWindow()) {
+                model.addObserver(modelObserver);
+            }
+            setLongCount(model.acknowledge(modelObserver));
+        }
+    }
+
+    /**
+     * @return The model this counter displays, or null if it counts locally.
+     */
+    public TallyCounterModel getModel() {
+        return model;
+    }
+
+    /**
+     * Set whether count changes roll the changed digits into place like an odometer.
+     *
+     * @param animate True to animate count changes.
+     */
+    public void setAnimateChanges(boolean animate) {
+        if (animate == (digitRoller != null)) {
+            return;
+        }
+        digitRoller = animate
+            ? new DigitRoller(countFormatter.getWidth(), DigitRoller.DEFAULT_DURATION_MS)
+            : null;
+        invalidate();
+    }
+
+    /**
+     * Set how the counter's size responds to count changes.
+     *
+     * @param boundsPolicy {@link #BOUNDS_FIXED} or {@link #BOUNDS_VARIABLE}.
+     */
+    public void setBoundsPolicy(int boundsPolicy) {
+        if (this.boundsPolicy == boundsPolicy) {
+            return;
+        }
+        this.boundsPolicy = boundsPolicy;
+        measureCache.clear();
+        requestLayout();
+    }
+
+    /**
+     * Set whether the background and baseline are recorded into a bitmap when the view's size
+     * changes and replayed on every frame, instead of being drawn from scratch.
+     *
+     * @param enabled True to cache the background and baseline.
+     */
+    public void setChromeCacheEnabled(boolean enabled) {
+        if (chromeCacheEnabled == enabled) {
+            return;
+        }
+        chromeCacheEnabled = enabled;
+        recordChrome(getWidth(), getHeight());
+        invalidate();
+    }
+
+    /**
+     * Set how the count digits are drawn.
+     *
+     * @param renderMode {@link #RENDER_MODE_TEXT} or {@link #RENDER_MODE_ATLAS}.
+     */
+    public void setRenderMode(int renderMode) {
+        this.renderMode = renderMode;
+        updateDigitAtlas();
+    }
+
+    /**
+     * Look up the digit atlas for the current paints and render mode, and remeasure. Must be
+     * called whenever the paints change, since the digit metrics and atlas are only valid for one
+     * configuration.
+     */
+    private void updateDigitAtlas() {
+        digitAtlas = renderMode == RENDER_MODE_ATLAS
+            ? DigitAtlas.obtain(paints.getNumberPaint(), digitMetrics)
+            : null;
+        measureCache.clear();
+        requestLayout();
+        invalidate();
+    }
+
+    //
+    // View overrides
+    //
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        // Attached views run on the UI thread, so this is the UI thread's Choreographer. It is
+        // only needed while attached, which lets counters be created off the UI thread.
+        choreographer = Choreographer.getInstance();
+        if (model != null) {
+            // Observe only while attached, so a long-lived model does not leak this view.
+            model.addObserver(modelObserver);
+            setLongCount(model.acknowledge(modelObserver));
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (model != null) {
+            model.removeObserver(modelObserver);
+        }
+        choreographer.removeFrameCallback(modelFrameCallback);
+        choreographer = null;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // Drop cached sizes if the padding changed since they were computed.
+        measureCache.validatePadding(getPaddingLeft(), getPaddingTop(), getPaddingRight(),
+            getPaddingBottom());
+
+        // Reuse the result of an earlier pass with the same constraints, if there was one.
+        int entry = measureCache.indexOf(widthMeasureSpec, heightMeasureSpec);
+        if (entry < 0) {
+            if (!measureCache.hasContentSize()) {
+                measureContentSize();
+            }
+
+            // Reconcile size that this view wants to be with the size the parent will let it
+            // be.
+            final int measuredWidth =
+                reconcileSize(measureCache.getContentWidth(), widthMeasureSpec);
+            final int measuredHeight =
+                reconcileSize(measureCache.getContentHeight(), heightMeasureSpec);
+            entry = measureCache.put(widthMeasureSpec, heightMeasureSpec, measuredWidth,
+                measuredHeight);
+        }
+
+        // Store the final measured dimensions.
+        setMeasuredDimension(measureCache.getMeasuredWidth(entry),
+            measureCache.getMeasuredHeight(entry));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        recordChrome(w, h);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+
+        // Grab canvas dimensions.
+        final int canvasWidth = canvas.getWidth();
+        final int canvasHeight = canvas.getHeight();
+
+        // Calculate horizontal center.
+        final float centerX = canvasWidth * 0.5f;
+
+        // Draw the background and baseline, replaying the cached copy if there is one.
+        if (chromeBitmap != null) {
+            canvas.drawBitmap(chromeBitmap, 0f, 0f, null);
+        } else {
+            drawChrome(canvas, canvasWidth, canvasHeight);
+        }
+
+        final float baselineY = Math.round(canvasHeight * 0.6f);
+
+        // Draw text.
+        final float textWidth = digitMetrics.measureText(displayedCount);
+        final float textX = Math.round(centerX - textWidth * 0.5f);
+        final long now = AnimationUtils.currentAnimationTimeMillis();
+        if (digitRoller != null && digitRoller.isRunning(now)) {
+            drawRollingDigits(canvas, textX, baselineY, digitRoller.getProgress(now));
+            // Keep drawing frames until the roll settles.
+            invalidateRollingDigits(centerX, baselineY);
+        } else if (digitAtlas != null) {
+            digitAtlas.drawText(canvas, displayedCount, textX, baselineY);
+        } else {
+            canvas.drawText(displayedCount, 0, displayedCount.length, textX, baselineY,
+                paints.getNumberPaint());
+        }
+    }
+
+    //
+    // Measuring/Drawing helpers
+    //
+
+    /**
+     * Reconcile a desired size for the view contents with a {@link android.view.View.MeasureSpec}
+     * constraint passed by the parent.
+     *
+     * Simplified version of {@link View#resolveSizeAndState(int, int, int)}.
+     *
+     * @param contentSize Size of the view's contents.
+     * @param measureSpec A {@link android.view.View.MeasureSpec} passed by the parent.
+     * @return A size that best fits {@code contentSize} while respecting the parent's constraints.
+     */
+    static int reconcileSize(int contentSize, int measureSpec) {
+        final int mode = MeasureSpec.getMode(measureSpec);
+        final int specSize = MeasureSpec.getSize(measureSpec);
+        switch (mode) {
+            case MeasureSpec.EXACTLY:
+                return specSize;
+            case MeasureSpec.AT_MOST:
+                if (contentSize < specSize) {
+                    return contentSize;
+                } else {
+                    return specSize;
+                }
+            case MeasureSpec.UNSPECIFIED:
+            default:
+                return contentSize;
+        }
+    }
+
+    /**
+     * Compute the desired size of the counter's contents, including padding, from the digit
+     * metrics and store it in the measure cache. Only called when the cache has no content size.
+     */
+    void measureContentSize() {
+        // Measure maximum possible width of text from the cached digit advances, or only the
+        // current count's width if the bounds may vary.
+        final float maxTextWidth = boundsPolicy == BOUNDS_FIXED
+            ? digitMetrics.measureMaxText(countFormatter.getWidth())
+            : digitMetrics.measureText(displayedCount);
+        measuredTextWidth = maxTextWidth;
+        // Estimate maximum possible height of text.
+        final float maxTextHeight = digitMetrics.getTextHeight();
+
+        // Add padding to maximum width calculation.
+        final int desiredWidth = Math.round(maxTextWidth + getPaddingLeft() + getPaddingRight());
+
+        // Add padding to maximum height calculation.
+        final int desiredHeight = Math.round(maxTextHeight * 2f + getPaddingTop() +
+            getPaddingBottom());
+
+        measureCache.setContentSize(desiredWidth, desiredHeight);
+    }
+
+    /**
+     * Measure like a plain {@link View}, ignoring the counter's content. Used by the versions of
+     * the component that come before measurement is introduced.
+     */
+    final void measureAsPlainView(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+            getDefaultSize(getSuggestedMinimumHeight(), heightMeasureSpec));
+    }
+
+    /**
+     * Invalidate only the digit cells that changed in the last call to
+     * {@link CountFormatter#format(long)}, so that in a software layer a +1 increment redraws a
+     * single cell rather than the whole counter.
+     *
+     * Under hardware acceleration the dirty rect is ignored: the view's display list is recorded
+     * again in full and the window is redrawn as for a plain {@link #invalidate()}, so there this
+     * saves nothing.
+     *
+     * @param oldTextWidth Width of the previously displayed digits.
+     */
+    void invalidateChangedDigits(float oldTextWidth) {
+        final int first = countFormatter.getFirstChangedIndex();
+        if (first < 0) {
+            return;
+        }
+        final int last = countFormatter.getLastChangedIndex();
+
+        // Vertical extent of the text, matching the baseline used in onDraw().
+        final float baselineY = Math.round(getHeight() * 0.6f);
+        final int top = (int) Math.floor(baselineY + digitMetrics.top);
+        final int bottom = (int) Math.ceil(baselineY + digitMetrics.bottom);
+
+        if (digitMetrics.measureText(displayedCount) != oldTextWidth) {
+            // Centering shifted every digit, so redraw the whole line of text.
+            invalidate(0, top, getWidth(), bottom);
+            return;
+        }
+
+        digitMetrics.getDigitSpan(displayedCount, first, last, getWidth() * 0.5f, digitSpan);
+        invalidate((int) Math.floor(digitSpan[0]) - 1, top,
+            (int) Math.ceil(digitSpan[1]) + 1, bottom);
+    }
+
+    /**
+     * Draw the parts of the counter that do not depend on the count: the rounded background and
+     * the baseline.
+     */
+    void drawChrome(Canvas canvas, int width, int height) {
+        // Draw the background.
+        backgroundRect.set(0f, 0f, width, height);
+        canvas.drawRoundRect(backgroundRect, cornerRadius, cornerRadius,
+            paints.getBackgroundPaint());
+
+        // Draw baseline.
+        final float baselineY = Math.round(height * 0.6f);
+        canvas.drawLine(0, baselineY, width, baselineY, paints.getLinePaint());
+    }
+
+    /**
+     * Draw the displayed digits mid-roll. Each changed cell is clipped, with the old digit
+     * sliding up and out while the new digit slides in from below.
+     *
+     * @param progress Roll progress, from 0 (old digits) to 1 (new digits).
+     */
+    private void drawRollingDigits(Canvas canvas, float textX, float baselineY, float progress) {
+        final char[] fromDigits = digitRoller.getFromDigits();
+        final char zeroDigit = digitMetrics.getZeroDigit();
+        final float rollDistance = digitMetrics.getTextHeight();
+        final float top = baselineY + digitMetrics.top;
+        final float bottom = baselineY + digitMetrics.bottom;
+
+        float x = textX;
+        for (int i = 0; i < displayedCount.length; i++) {
+            final float advance = digitMetrics.getAdvance(displayedCount[i] - zeroDigit);
+            if (fromDigits[i] == displayedCount[i]) {
+                drawDigit(canvas, displayedCount, i, x, baselineY);
+            } else {
+                final int saveCount = canvas.save();
+                canvas.clipRect(x, top, x + advance, bottom);
+                drawDigit(canvas, fromDigits, i, x, baselineY - progress * rollDistance);
+                drawDigit(canvas, displayedCount, i, x,
+                    baselineY + (1f - progress) * rollDistance);
+                canvas.restoreToCount(saveCount);
+            }
+            x += advance;
+        }
+    }
+
+    /**
+     * Schedule the next frame of a roll, invalidating only the span of cells that are rolling, as
+     * {@link #invalidateChangedDigits(float)} does for a count change. Like there, the dirty rect
+     * only limits the redraw in a software layer.
+     */
+    private void invalidateRollingDigits(float centerX, float baselineY) {
+        final char[] fromDigits = digitRoller.getFromDigits();
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < displayedCount.length; i++) {
+            if (fromDigits[i] != displayedCount[i]) {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (first < 0) {
+            return;
+        }
+
+        final int top = (int) Math.floor(baselineY + digitMetrics.top);
+        final int bottom = (int) Math.ceil(baselineY + digitMetrics.bottom);
+        digitMetrics.getDigitSpan(displayedCount, first, last, centerX, digitSpan);
+        postInvalidateOnAnimation((int) Math.floor(digitSpan[0]) - 1, top,
+            (int) Math.ceil(digitSpan[1]) + 1, bottom);
+    }
+
+    /**
+     * Draw {@code digits[index]} with the current render mode.
+     */
+    private void drawDigit(Canvas canvas, char[] digits, int index, float x, float baselineY) {
+        if (digitAtlas != null) {
+            digitAtlas.drawDigit(canvas, digits[index], x, baselineY);
+        } else {
+            canvas.drawText(digits, index, 1, x, baselineY, paints.getNumberPaint());
+        }
+    }
+
+    /**
+     * Record the background and baseline into {@link #chromeBitmap} if chrome caching is enabled,
+     * otherwise release any previously recorded bitmap.
+     *
+     * The old bitmap is left for the garbage collector rather than recycled, since a display list
+     * recorded for the previous frame may still reference it.
+     */
+    private void recordChrome(int width, int height) {
+        chromeBitmap = null;
+        if (!chromeCacheEnabled || width <= 0 || height <= 0) {
+            return;
+        }
+        chromeBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        drawChrome(new Canvas(chromeBitmap), width, height);
+    }
+}
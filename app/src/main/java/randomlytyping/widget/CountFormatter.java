@@ -0,0 +1,128 @@
+package randomlytyping.widget;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Formats a tally count as a zero-padded run of digits written into a reused {@code char[]}.
+ * Counts up to {@link Long#MAX_VALUE} (19 digits) are supported.
+ *
+ * This replaces {@code String.format(Locale.getDefault(), "%04d", count)}, which allocates a
+ * {@link java.util.Formatter}, a {@link StringBuilder} and a {@link String} every time the count
+ * changes. The buffer can be handed straight to
+ * {@link android.graphics.Canvas#drawText(char[], int, int, float, float, android.graphics.Paint)}.
+ */
+final class CountFormatter {
+
+    // Digit buffer that is rewritten in place on every call to format().
+    private final char[] digits;
+
+    // Locale-specific character for zero; the other digits follow it.
+    private final char zeroDigit;
+
+    // Range of digit indices rewritten with a different value by the last call to format().
+    private int firstChangedIndex = -1;
+    private int lastChangedIndex = -1;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructor for a formatter that uses the digits of the default locale.
+     *
+     * @param width Number of digits to pad counts to.
+     */
+    CountFormatter(int width) {
+        this(width, DecimalFormatSymbols.getInstance(Locale.getDefault()).getZeroDigit());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param width     Number of digits to pad counts to.
+     * @param zeroDigit Character used for the digit zero.
+     */
+    CountFormatter(int width, char zeroDigit) {
+        this.digits = new char[width];
+        this.zeroDigit = zeroDigit;
+        Arrays.fill(digits, zeroDigit);
+    }
+
+    /**
+     * @return Number of decimal digits needed to write {@code value}, which must not be negative.
+     */
+    static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    //
+    // Formatting
+    //
+
+    /**
+     * Write {@code count} into the digit buffer, padding with leading zeroes.
+     *
+     * @param count A non-negative count that fits within the formatter's width.
+     * @return The digit buffer; the same instance is returned on every call.
+     */
+    char[] format(long count) {
+        firstChangedIndex = -1;
+        lastChangedIndex = -1;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            final char digit = (char) (zeroDigit + (int) (count % 10));
+            if (digits[i] != digit) {
+                digits[i] = digit;
+                if (lastChangedIndex < 0) {
+                    lastChangedIndex = i;
+                }
+                firstChangedIndex = i;
+            }
+            count /= 10;
+        }
+        return digits;
+    }
+
+    /**
+     * @return Index of the leftmost digit changed by the last call to {@link #format(long)}, or
+     * {@code -1} if no digit changed.
+     */
+    int getFirstChangedIndex() {
+        return firstChangedIndex;
+    }
+
+    /**
+     * @return Index of the rightmost digit changed by the last call to {@link #format(long)}, or
+     * {@code -1} if no digit changed.
+     */
+    int getLastChangedIndex() {
+        return lastChangedIndex;
+    }
+
+    /**
+     * @return The digit buffer holding the most recently formatted count.
+     */
+    char[] getDigits() {
+        return digits;
+    }
+
+    /**
+     * @return Character used for the digit zero.
+     */
+    char getZeroDigit() {
+        return zeroDigit;
+    }
+
+    /**
+     * @return Number of digits written by {@link #format(long)}.
+     */
+    int getWidth() {
+        return digits.length;
+    }
+}
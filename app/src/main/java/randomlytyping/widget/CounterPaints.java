@@ -0,0 +1,167 @@
+package randomlytyping.widget;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+import android.util.LruCache;
+
+/**
+ * Immutable set of the paints a tally counter draws with: background, baseline and digits.
+ *
+ * Paints are native objects, so instead of every counter allocating its own three, configurations
+ * are pooled and all counters styled with identical attributes share one instance. The paints
+ * returned by the getters must therefore never be modified; derive a new configuration with
+ * {@link #withTextSize(float)} or {@link #withTypeface(Typeface)} instead. The pool is a bounded
+ * cache, which can be used from any thread.
+ */
+final class CounterPaints {
+
+    // Upper bound on pooled configurations.
+    private static final int MAX_POOLED_CONFIGURATIONS = 16;
+
+    private static final LruCache<Key, CounterPaints> POOL =
+        new LruCache<>(MAX_POOLED_CONFIGURATIONS);
+
+    //
+    // Fields
+    //
+
+    private final Key key;
+
+    private final Paint backgroundPaint;
+    private final Paint linePaint;
+    private final TextPaint numberPaint;
+
+    //
+    // Constructors/Factories
+    //
+
+    private CounterPaints(Key key) {
+        this.key = key;
+
+        backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        backgroundPaint.setColor(key.backgroundColor);
+
+        linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        linePaint.setColor(key.baselineColor);
+        linePaint.setStrokeWidth(key.baselineWidth);
+
+        numberPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        numberPaint.setColor(key.textColor);
+        numberPaint.setTextSize(key.textSize);
+        numberPaint.setTypeface(key.typeface);
+    }
+
+    /**
+     * Get the shared paints for a configuration, creating them only if no counter has used the
+     * configuration recently.
+     *
+     * @param backgroundColor Color of the rounded background.
+     * @param baselineColor   Color of the baseline.
+     * @param baselineWidth   Stroke width of the baseline in pixels.
+     * @param textColor       Color of the digits.
+     * @param textSize        Size of the digits in pixels.
+     * @param typeface        Typeface of the digits, or null for the default typeface.
+     * @return Shared paints for the configuration.
+     */
+    static CounterPaints obtain(int backgroundColor, int baselineColor, float baselineWidth,
+                                int textColor, float textSize, Typeface typeface) {
+        return obtain(new Key(backgroundColor, baselineColor, baselineWidth, textColor, textSize,
+            typeface));
+    }
+
+    private static CounterPaints obtain(Key key) {
+        CounterPaints paints = POOL.get(key);
+        if (paints == null) {
+            paints = new CounterPaints(key);
+            POOL.put(key, paints);
+        }
+        return paints;
+    }
+
+    /**
+     * @return Shared paints matching this configuration but with digits of {@code textSize}.
+     */
+    CounterPaints withTextSize(float textSize) {
+        return obtain(key.backgroundColor, key.baselineColor, key.baselineWidth, key.textColor,
+            textSize, key.typeface);
+    }
+
+    /**
+     * @return Shared paints matching this configuration but with digits in {@code typeface}.
+     */
+    CounterPaints withTypeface(Typeface typeface) {
+        return obtain(key.backgroundColor, key.baselineColor, key.baselineWidth, key.textColor,
+            key.textSize, typeface);
+    }
+
+    //
+    // Paints
+    //
+
+    Paint getBackgroundPaint() {
+        return backgroundPaint;
+    }
+
+    Paint getLinePaint() {
+        return linePaint;
+    }
+
+    TextPaint getNumberPaint() {
+        return numberPaint;
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Pool key for a paint configuration.
+     */
+    private static final class Key {
+        private final int backgroundColor;
+        private final int baselineColor;
+        private final float baselineWidth;
+        private final int textColor;
+        private final float textSize;
+        private final Typeface typeface;
+
+        Key(int backgroundColor, int baselineColor, float baselineWidth, int textColor,
+            float textSize, Typeface typeface) {
+            this.backgroundColor = backgroundColor;
+            this.baselineColor = baselineColor;
+            this.baselineWidth = baselineWidth;
+            this.textColor = textColor;
+            this.textSize = textSize;
+            this.typeface = typeface;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return backgroundColor == key.backgroundColor
+                && baselineColor == key.baselineColor
+                && Float.compare(baselineWidth, key.baselineWidth) == 0
+                && textColor == key.textColor
+                && Float.compare(textSize, key.textSize) == 0
+                && typeface == key.typeface;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = backgroundColor;
+            result = 31 * result + baselineColor;
+            result = 31 * result + Float.floatToIntBits(baselineWidth);
+            result = 31 * result + textColor;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + System.identityHashCode(typeface);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package randomlytyping.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.util.LruCache;
+
+/**
+ * Bitmap holding the ten digit glyphs rasterized once, so that a count can be drawn by blitting
+ * cells with {@link Canvas#drawBitmap(Bitmap, Rect, Rect, Paint)} instead of shaping text on
+ * every frame.
+ *
+ * Atlases are shared between all counters with the same typeface, text size, color and locale
+ * digits through a cache bounded by bitmap bytes.
+ */
+final class DigitAtlas {
+
+    // Upper bound on the bytes held by cached atlas bitmaps.
+    private static final int MAX_CACHE_BYTES = 4 * 1024 * 1024;
+
+    private static final LruCache<Key, DigitAtlas> CACHE =
+        new LruCache<Key, DigitAtlas>(MAX_CACHE_BYTES) {
+            @Override
+            protected int sizeOf(Key key, DigitAtlas atlas) {
+                return atlas.bitmap.getByteCount();
+            }
+        };
+
+    //
+    // Fields
+    //
+
+    private final Bitmap bitmap;
+    private final DigitMetrics metrics;
+
+    // Width of each digit cell and height of the atlas.
+    private final int cellWidth;
+    private final int cellHeight;
+
+    // Distance from the top of a cell to the baseline of its glyph.
+    private final int baselineOffset;
+
+    // Rects reused while blitting; atlases are only drawn from the UI thread.
+    private final Rect srcRect = new Rect();
+    private final Rect dstRect = new Rect();
+
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    //
+    // Constructors/Factories
+    //
+
+    private DigitAtlas(Paint paint, DigitMetrics metrics) {
+        this.metrics = metrics;
+
+        cellWidth = (int) Math.ceil(metrics.getMaxAdvance());
+        cellHeight = (int) Math.ceil(metrics.getTextHeight());
+        baselineOffset = (int) Math.ceil(-metrics.top);
+
+        bitmap = Bitmap.createBitmap(cellWidth * 10, cellHeight, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        final char[] digit = new char[1];
+        for (int i = 0; i < 10; i++) {
+            digit[0] = (char) (metrics.getZeroDigit() + i);
+            canvas.drawText(digit, 0, 1, i * cellWidth, baselineOffset, paint);
+        }
+    }
+
+    /**
+     * Get the atlas for the current typeface, text size and color of {@code paint}, rasterizing
+     * the digits only if no counter on screen has used this configuration recently.
+     *
+     * @param paint   The paint used to draw the digits.
+     * @param metrics Digit metrics for {@code paint}.
+     * @return Shared digit atlas for the configuration.
+     */
+    static DigitAtlas obtain(Paint paint, DigitMetrics metrics) {
+        final Key key = new Key(paint.getTypeface(), paint.getTextSize(), paint.getColor(),
+            metrics.getZeroDigit());
+        DigitAtlas atlas = CACHE.get(key);
+        if (atlas == null) {
+            atlas = new DigitAtlas(paint, metrics);
+            CACHE.put(key, atlas);
+        }
+        return atlas;
+    }
+
+    //
+    // Drawing
+    //
+
+    /**
+     * Draw {@code digits} starting at the given pen position, advancing by each digit's advance
+     * just like {@link Canvas#drawText(char[], int, int, float, float, Paint)} would.
+     *
+     * @param canvas    The canvas to draw into.
+     * @param digits    Digits to draw.
+     * @param x         Pen x-coordinate of the first digit.
+     * @param baselineY Baseline y-coordinate.
+     */
+    void drawText(Canvas canvas, char[] digits, float x, float baselineY) {
+        float penX = x;
+        for (char c : digits) {
+            drawDigit(canvas, c, penX, baselineY);
+            penX += metrics.getAdvance(c - metrics.getZeroDigit());
+        }
+    }
+
+    /**
+     * Draw the single digit {@code c} at the given pen position.
+     *
+     * @param canvas    The canvas to draw into.
+     * @param c         Digit to draw.
+     * @param x         Pen x-coordinate of the digit.
+     * @param baselineY Baseline y-coordinate.
+     */
+    void drawDigit(Canvas canvas, char c, float x, float baselineY) {
+        final int digit = c - metrics.getZeroDigit();
+        final int left = Math.round(x);
+        final int top = Math.round(baselineY) - baselineOffset;
+        srcRect.set(digit * cellWidth, 0, (digit + 1) * cellWidth, cellHeight);
+        dstRect.set(left, top, left + cellWidth, top + cellHeight);
+        canvas.drawBitmap(bitmap, srcRect, dstRect, bitmapPaint);
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Cache key for an atlas configuration.
+     */
+    private static final class Key {
+        private final Typeface typeface;
+        private final float textSize;
+        private final int color;
+        private final char zeroDigit;
+
+        Key(Typeface typeface, float textSize, int color, char zeroDigit) {
+            this.typeface = typeface;
+            this.textSize = textSize;
+            this.color = color;
+            this.zeroDigit = zeroDigit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return typeface == key.typeface
+                && Float.compare(textSize, key.textSize) == 0
+                && color == key.color
+                && zeroDigit == key.zeroDigit;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(typeface);
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + color;
+            result = 31 * result + zeroDigit;
+            return result;
+        }
+    }
+}
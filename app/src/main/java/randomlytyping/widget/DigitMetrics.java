@@ -0,0 +1,219 @@
+package randomlytyping.widget;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.LruCache;
+
+/**
+ * Precomputed glyph advances and font metrics for the ten digits drawn by a tally counter.
+ *
+ * Counters only ever display digits, so the width of any count can be computed by summing
+ * cached advances instead of calling {@link Paint#measureText(char[], int, int)} from
+ * {@code onDraw()} or {@link Paint#getFontMetrics()} from {@code onMeasure()}. Instances are
+ * shared between all counters with the same typeface, text size and locale digits through a
+ * bounded cache, which can be used from any thread.
+ */
+final class DigitMetrics {
+
+    // Upper bound on cached configurations.
+    private static final int MAX_CACHED_CONFIGURATIONS = 16;
+
+    private static final LruCache<Key, DigitMetrics> CACHE =
+        new LruCache<>(MAX_CACHED_CONFIGURATIONS);
+
+    //
+    // Fields
+    //
+
+    // Advance of each digit, indexed by digit value.
+    private final float[] advances;
+
+    private final float maxAdvance;
+
+    private final char zeroDigit;
+
+    /**
+     * Distance from the baseline to the top of the tallest glyph (negative, like
+     * {@link Paint.FontMetrics#top}).
+     */
+    final float top;
+
+    /**
+     * Distance from the baseline to the bottom of the lowest glyph (like
+     * {@link Paint.FontMetrics#bottom}).
+     */
+    final float bottom;
+
+    //
+    // Constructors/Factories
+    //
+
+    /**
+     * Constructor.
+     *
+     * @param advances  Advance of each digit, indexed by digit value.
+     * @param zeroDigit Character used for the digit zero.
+     * @param top       Font top relative to the baseline.
+     * @param bottom    Font bottom relative to the baseline.
+     */
+    DigitMetrics(float[] advances, char zeroDigit, float top, float bottom) {
+        this.advances = advances;
+        this.zeroDigit = zeroDigit;
+        this.top = top;
+        this.bottom = bottom;
+
+        float max = 0f;
+        for (float advance : advances) {
+            max = Math.max(max, advance);
+        }
+        this.maxAdvance = max;
+    }
+
+    /**
+     * Get the digit metrics for the current typeface and text size of {@code paint}, measuring
+     * them only if no counter has used this configuration before.
+     *
+     * Call this again whenever the paint's typeface or text size changes.
+     *
+     * @param paint     The paint used to draw the digits.
+     * @param zeroDigit Character used for the digit zero.
+     * @return Shared digit metrics for the configuration.
+     */
+    static DigitMetrics obtain(Paint paint, char zeroDigit) {
+        final Key key = new Key(paint.getTypeface(), paint.getTextSize(), zeroDigit);
+        DigitMetrics metrics = CACHE.get(key);
+        if (metrics == null) {
+            metrics = measure(paint, zeroDigit);
+            CACHE.put(key, metrics);
+        }
+        return metrics;
+    }
+
+    private static DigitMetrics measure(Paint paint, char zeroDigit) {
+        final char[] digits = new char[10];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = (char) (zeroDigit + i);
+        }
+        final float[] advances = new float[digits.length];
+        paint.getTextWidths(digits, 0, digits.length, advances);
+
+        final Paint.FontMetrics fontMetrics = paint.getFontMetrics();
+        return new DigitMetrics(advances, zeroDigit, fontMetrics.top, fontMetrics.bottom);
+    }
+
+    //
+    // Measurement
+    //
+
+    /**
+     * @return Advance of the digit with value {@code digit}.
+     */
+    float getAdvance(int digit) {
+        return advances[digit];
+    }
+
+    /**
+     * @return Advance of the widest digit.
+     */
+    float getMaxAdvance() {
+        return maxAdvance;
+    }
+
+    /**
+     * @return Character used for the digit zero.
+     */
+    char getZeroDigit() {
+        return zeroDigit;
+    }
+
+    /**
+     * @return Width of {@code digits} when drawn with the paint these metrics were taken from.
+     */
+    float measureText(char[] digits) {
+        float width = 0f;
+        for (char digit : digits) {
+            width += advances[digit - zeroDigit];
+        }
+        return width;
+    }
+
+    /**
+     * Compute the horizontal extent of the digit cells {@code first} through {@code last} when
+     * {@code digits} is drawn centered on {@code centerX}, the way the counters center their
+     * text. The extent is widened to a full {@link #getMaxAdvance()} for the last cell so that it
+     * covers glyphs drawn into fixed-width atlas cells as well.
+     *
+     * @param digits  Digits being drawn.
+     * @param first   Index of the first digit cell.
+     * @param last    Index of the last digit cell.
+     * @param centerX Horizontal center of the text.
+     * @param outSpan Receives the left edge at index 0 and the right edge at index 1.
+     */
+    void getDigitSpan(char[] digits, int first, int last, float centerX, float[] outSpan) {
+        float left = Math.round(centerX - measureText(digits) * 0.5f);
+        for (int i = 0; i < first; i++) {
+            left += advances[digits[i] - zeroDigit];
+        }
+        float lastLeft = left;
+        for (int i = first; i < last; i++) {
+            lastLeft += advances[digits[i] - zeroDigit];
+        }
+        outSpan[0] = left;
+        outSpan[1] = lastLeft + maxAdvance;
+    }
+
+    /**
+     * @return Width of the widest possible run of {@code digitCount} digits.
+     */
+    float measureMaxText(int digitCount) {
+        return maxAdvance * digitCount;
+    }
+
+    /**
+     * @return Height of a line of digits, from font top to font bottom.
+     */
+    float getTextHeight() {
+        return -top + bottom;
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Cache key for a paint configuration.
+     */
+    private static final class Key {
+        private final Typeface typeface;
+        private final float textSize;
+        private final char zeroDigit;
+
+        Key(Typeface typeface, float textSize, char zeroDigit) {
+            this.typeface = typeface;
+            this.textSize = textSize;
+            this.zeroDigit = zeroDigit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return typeface == key.typeface
+                && Float.compare(textSize, key.textSize) == 0
+                && zeroDigit == key.zeroDigit;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(typeface);
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + zeroDigit;
+            return result;
+        }
+    }
+}
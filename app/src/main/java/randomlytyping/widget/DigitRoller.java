@@ -0,0 +1,99 @@
+package randomlytyping.widget;
+
+/**
+ * Frame-driven state for an odometer-style roll between two counts.
+ *
+ * All state is preallocated, so starting, retargeting and sampling the roll never allocate. The
+ * digits being rolled to are the counter's displayed digits; this only keeps the digits being
+ * rolled away from and the clock. A new count arriving mid-roll retargets the running roll
+ * instead of queuing another one.
+ */
+final class DigitRoller {
+
+    static final long DEFAULT_DURATION_MS = 150;
+
+    //
+    // Fields
+    //
+
+    // Digits rolling out of view, one per digit cell.
+    private final char[] fromDigits;
+
+    private final long duration;
+
+    private long startTime;
+    private boolean running;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructor.
+     *
+     * @param width    Number of digit cells.
+     * @param duration Duration of a roll in milliseconds.
+     */
+    DigitRoller(int width, long duration) {
+        this.fromDigits = new char[width];
+        this.duration = duration;
+    }
+
+    //
+    // Rolling
+    //
+
+    /**
+     * Start rolling away from {@code currentDigits}, or retarget a roll that is already running.
+     * Call this before the displayed digits are overwritten with the new count.
+     *
+     * A retargeted roll always rolls away from the previous target, so that counts arriving
+     * faster than a roll settles, e.g. one per frame, lag the latest count by at most one step
+     * instead of rolling away from digits that are never replaced.
+     *
+     * @param currentDigits Digits displayed before the count change, i.e. the previous target.
+     * @param now           Current animation time in milliseconds.
+     */
+    void start(char[] currentDigits, long now) {
+        System.arraycopy(currentDigits, 0, fromDigits, 0, fromDigits.length);
+        startTime = now;
+        running = true;
+    }
+
+    /**
+     * @return True if a roll is in progress at {@code now}.
+     */
+    boolean isRunning(long now) {
+        if (running && now - startTime >= duration) {
+            running = false;
+        }
+        return running;
+    }
+
+    /**
+     * @return Eased progress of the roll at {@code now}, from 0 (old digits fully visible) to 1
+     * (new digits fully visible).
+     */
+    float getProgress(long now) {
+        if (!running) {
+            return 1f;
+        }
+        final float t = Math.min(1f, Math.max(0f, (now - startTime) / (float) duration));
+        // Decelerate: quick start, gentle settle.
+        return 1f - (1f - t) * (1f - t);
+    }
+
+    /**
+     * @return Digits rolling out of view. Only valid while {@link #isRunning(long)}.
+     */
+    char[] getFromDigits() {
+        return fromDigits;
+    }
+
+    /**
+     * @return Number of digit cells.
+     */
+    int getWidth() {
+        return fromDigits.length;
+    }
+}
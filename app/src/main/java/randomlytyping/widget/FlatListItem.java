@@ -0,0 +1,390 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.StringRes;
+import android.support.annotation.StyleRes;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.accessibility.AccessibilityNodeInfoCompat;
+import android.support.v4.widget.ExploreByTouchHelper;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.LruCache;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+
+import java.util.List;
+
+import randomlytyping.mldr.R;
+import randomlytyping.util.Icons;
+
+/**
+ * List item that looks like {@code list_item_simple.xml} but is a single {@link View}: the icon,
+ * title and subtitle are all drawn in {@link #onDraw(Canvas)}, so a row costs one view to
+ * create, measure and lay out instead of four.
+ *
+ * Icon drawables and text layouts are cached across items, since a list only shows a handful of
+ * distinct {@link randomlytyping.mldr.ui.ListItem}s. The title and subtitle are exposed to
+ * accessibility services as virtual views.
+ */
+public class FlatListItem extends View {
+
+    // Virtual view ids of the title and subtitle.
+    private static final int VIRTUAL_TITLE = 0;
+    private static final int VIRTUAL_SUBTITLE = 1;
+
+    // Text appearance attributes used for the title and subtitle, in ascending order.
+    private static final int[] TEXT_APPEARANCE_ATTRS = {
+        android.R.attr.textSize, android.R.attr.textColor};
+
+    // Upper bound on the number of cached text layouts.
+    private static final int MAX_CACHED_TEXT_LAYOUTS = 32;
+
+    // Text layouts by title and subtitle resource ids, all built for textLayoutsSpec.
+    private static final LruCache<Long, ListItemTextLayout> TEXT_LAYOUTS =
+        new LruCache<>(MAX_CACHED_TEXT_LAYOUTS);
+    private static ListItemTextLayout.Spec textLayoutsSpec;
+
+    //
+    // Fields
+    //
+
+    private final int iconSize;
+    private final int iconMarginStart;
+    private final int iconMarginEnd;
+    private final int titleTextAppearance;
+    private final int subtitleTextAppearance;
+
+    private TextPaint titlePaint;
+    private TextPaint subtitlePaint;
+
+    private final FlatListItemAccessibilityHelper accessibilityHelper;
+
+    // Content currently bound to the item, or 0 if nothing has been bound.
+    private int boundIconResId;
+    private int boundTitleResId;
+    private int boundSubtitleResId;
+
+    private Drawable icon;
+    private ListItemTextLayout.Spec textLayoutSpec;
+    private ListItemTextLayout textLayout;
+    private int textLeft;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructor.
+     *
+     * @param context The current context.
+     */
+    public FlatListItem(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param context The current context.
+     * @param attrs   The attributes of the XML tag that is inflating the view.
+     */
+    public FlatListItem(Context context, AttributeSet attrs) {
+        super(context, attrs);
+
+        final Resources res = getResources();
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.FlatListItem);
+        iconSize = a.getDimensionPixelSize(R.styleable.FlatListItem_iconSize,
+            res.getDimensionPixelSize(R.dimen.list_item_icon_size));
+        iconMarginStart = a.getDimensionPixelSize(R.styleable.FlatListItem_iconMarginStart,
+            res.getDimensionPixelSize(R.dimen.list_item_icon_margin_start));
+        iconMarginEnd = a.getDimensionPixelSize(R.styleable.FlatListItem_iconMarginEnd,
+            res.getDimensionPixelSize(R.dimen.list_item_icon_margin_end));
+        titleTextAppearance = a.getResourceId(R.styleable.FlatListItem_titleTextAppearance,
+            R.style.TextAppearance_ListItem_Title);
+        subtitleTextAppearance = a.getResourceId(R.styleable.FlatListItem_subtitleTextAppearance,
+            R.style.TextAppearance_ListItem_Subtitle);
+        a.recycle();
+
+        createTextPaints();
+
+        accessibilityHelper = new FlatListItemAccessibilityHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, accessibilityHelper);
+    }
+
+    //
+    // Binding
+    //
+
+    /**
+     * Bind content to the item. Rebinding the same content does nothing.
+     *
+     * @param iconResId     Icon mask drawable, loaded through {@link Icons}.
+     * @param titleResId    Title text.
+     * @param subtitleResId Subtitle text.
+     */
+    public void bind(@DrawableRes int iconResId, @StringRes int titleResId,
+                     @StringRes int subtitleResId) {
+        if (boundIconResId != iconResId) {
+            setIcon(iconResId);
+        }
+        if (boundTitleResId != titleResId || boundSubtitleResId != subtitleResId) {
+            boundTitleResId = titleResId;
+            boundSubtitleResId = subtitleResId;
+            // The item's size never depends on its text, so only new layouts are needed.
+            textLayout = textLayoutSpec != null ? getTextLayout(textLayoutSpec) : null;
+            invalidate();
+            accessibilityHelper.invalidateRoot();
+        }
+    }
+
+    private void setIcon(@DrawableRes int iconResId) {
+        if (icon != null) {
+            icon.setCallback(null);
+        }
+        boundIconResId = iconResId;
+
+        icon = Icons.getDrawable(getContext(), iconResId);
+        icon.setCallback(this);
+        icon.setBounds(getIconLeft(), getPaddingTop(), getIconLeft() + iconSize,
+            getPaddingTop() + iconSize);
+        invalidate();
+    }
+
+    /**
+     * @return The cached layouts for the bound title and subtitle, built for {@code spec}.
+     */
+    private ListItemTextLayout getTextLayout(ListItemTextLayout.Spec spec) {
+        if (!spec.equals(textLayoutsSpec)) {
+            TEXT_LAYOUTS.evictAll();
+            textLayoutsSpec = spec;
+        }
+        final long key = ((long) boundTitleResId << 32) | (boundSubtitleResId & 0xffffffffL);
+        ListItemTextLayout layout = TEXT_LAYOUTS.get(key);
+        if (layout == null) {
+            final Resources res = getResources();
+            layout = ListItemTextLayout.build(res.getText(boundTitleResId),
+                res.getText(boundSubtitleResId), spec);
+            TEXT_LAYOUTS.put(key, layout);
+        }
+        return layout;
+    }
+
+    //
+    // View implementation
+    //
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+
+        // Density and night mode affect the icons, and font scale the text sizes and so the
+        // item's height. The icon cache is keyed by both, so this finds the new icon if another
+        // row already loaded it.
+        if (boundIconResId != 0) {
+            setIcon(boundIconResId);
+        }
+        createTextPaints();
+        textLayoutSpec = null;
+        textLayout = null;
+        requestLayout();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        // Same height as a fixed-height SimpleListItem: the taller of the icon and one line each
+        // of title and subtitle.
+        final int textHeight = getLineHeight(titlePaint) + getLineHeight(subtitlePaint);
+        final int height = getPaddingTop() + getPaddingBottom() + Math.max(iconSize, textHeight);
+        final int width = getPaddingLeft() + getPaddingRight() + iconMarginStart + iconSize
+            + iconMarginEnd;
+        setMeasuredDimension(
+            getDefaultSize(width, widthMeasureSpec),
+            resolveSize(height, heightMeasureSpec)
+        );
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        textLeft = getIconLeft() + iconSize + iconMarginEnd;
+        if (icon != null) {
+            icon.setBounds(getIconLeft(), getPaddingTop(), getIconLeft() + iconSize,
+                getPaddingTop() + iconSize);
+        }
+
+        final ListItemTextLayout.Spec spec = new ListItemTextLayout.Spec(titlePaint,
+            subtitlePaint, w - getPaddingRight() - textLeft);
+        if (!spec.equals(textLayoutSpec)) {
+            textLayoutSpec = spec;
+            textLayout = null;
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (icon != null) {
+            icon.draw(canvas);
+        }
+
+        if (textLayout == null && textLayoutSpec != null && boundTitleResId != 0) {
+            textLayout = getTextLayout(textLayoutSpec);
+        }
+        if (textLayout != null) {
+            canvas.save();
+            canvas.translate(textLeft, getPaddingTop());
+            textLayout.draw(canvas);
+            canvas.restore();
+        }
+    }
+
+    @Override
+    protected boolean verifyDrawable(Drawable who) {
+        return who == icon || super.verifyDrawable(who);
+    }
+
+    //
+    // Accessibility
+    //
+
+    @Override
+    public boolean dispatchHoverEvent(MotionEvent event) {
+        return accessibilityHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return accessibilityHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        accessibilityHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    //
+    // Helpers
+    //
+
+    private int getIconLeft() {
+        return getPaddingLeft() + iconMarginStart;
+    }
+
+    /**
+     * Get the bounds of the title or subtitle, in this view's coordinates.
+     */
+    private void getVirtualViewBounds(int virtualViewId, Rect outBounds) {
+        final int titleHeight = getLineHeight(titlePaint);
+        final int top = virtualViewId == VIRTUAL_TITLE
+            ? getPaddingTop()
+            : getPaddingTop() + titleHeight;
+        final int height = virtualViewId == VIRTUAL_TITLE
+            ? titleHeight
+            : getLineHeight(subtitlePaint);
+        outBounds.set(textLeft, top, getWidth() - getPaddingRight(), top + height);
+    }
+
+    private CharSequence getVirtualViewText(int virtualViewId) {
+        final int resId = virtualViewId == VIRTUAL_TITLE ? boundTitleResId : boundSubtitleResId;
+        return resId != 0 ? getResources().getText(resId) : "";
+    }
+
+    private void createTextPaints() {
+        titlePaint = createTextPaint(titleTextAppearance);
+        subtitlePaint = createTextPaint(subtitleTextAppearance);
+    }
+
+    /**
+     * Create a paint from a text appearance style.
+     */
+    private TextPaint createTextPaint(@StyleRes int textAppearance) {
+        final TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        paint.density = getResources().getDisplayMetrics().density;
+
+        final TypedArray a = getContext().obtainStyledAttributes(textAppearance,
+            TEXT_APPEARANCE_ATTRS);
+        paint.setTextSize(a.getDimension(0, paint.getTextSize()));
+        final ColorStateList textColor = a.getColorStateList(1);
+        paint.setColor(textColor != null ? textColor.getDefaultColor() : Color.BLACK);
+        a.recycle();
+        return paint;
+    }
+
+    /**
+     * @return Height of a single line of text drawn with {@code paint}, including font padding
+     * as text views do by default.
+     */
+    private static int getLineHeight(Paint paint) {
+        final Paint.FontMetricsInt fm = paint.getFontMetricsInt();
+        return fm.bottom - fm.top;
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Exposes the title and subtitle to accessibility services as virtual views. Clicking either
+     * clicks the item.
+     */
+    private static class FlatListItemAccessibilityHelper extends ExploreByTouchHelper {
+
+        private final FlatListItem item;
+        private final Rect bounds = new Rect();
+
+        FlatListItemAccessibilityHelper(FlatListItem item) {
+            super(item);
+            this.item = item;
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            for (int id = VIRTUAL_TITLE; id <= VIRTUAL_SUBTITLE; id++) {
+                item.getVirtualViewBounds(id, bounds);
+                if (bounds.contains((int) x, (int) y)) {
+                    return id;
+                }
+            }
+            return INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            if (item.boundTitleResId != 0) {
+                virtualViewIds.add(VIRTUAL_TITLE);
+                virtualViewIds.add(VIRTUAL_SUBTITLE);
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId,
+                                                    AccessibilityNodeInfoCompat node) {
+            item.getVirtualViewBounds(virtualViewId, bounds);
+            node.setText(item.getVirtualViewText(virtualViewId));
+            node.setBoundsInParent(bounds);
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action,
+                                                        Bundle arguments) {
+            if (action == AccessibilityNodeInfoCompat.ACTION_CLICK) {
+                return item.performClick();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package randomlytyping.widget;
+
+import android.graphics.Canvas;
+import android.graphics.Typeface;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+/**
+ * Precomputed single-line title and subtitle layouts for a {@link SimpleListItem} that draws its
+ * own text instead of hosting text views.
+ *
+ * Building the layouts measures every glyph of both lines, which is most of the cost of binding
+ * a row. {@link #build(CharSequence, CharSequence, Spec)} can run on any thread, so the layouts
+ * for upcoming rows can be built in the background (see {@link ListItemTextPrefetcher}) and
+ * handed to the item with {@link SimpleListItem#setTextLayout(ListItemTextLayout)}.
+ */
+public final class ListItemTextLayout {
+
+    private final Spec spec;
+    private final CharSequence title;
+    private final CharSequence subtitle;
+    private final StaticLayout titleLayout;
+    private final StaticLayout subtitleLayout;
+
+    private ListItemTextLayout(Spec spec, CharSequence title, CharSequence subtitle) {
+        this.spec = spec;
+        this.title = title;
+        this.subtitle = subtitle;
+        titleLayout = createLayout(title, spec.titlePaint, spec.width);
+        subtitleLayout = createLayout(subtitle, spec.subtitlePaint, spec.width);
+    }
+
+    /**
+     * Build the layouts for a title and subtitle. Safe to call on any thread.
+     *
+     * @param title    Title text.
+     * @param subtitle Subtitle text.
+     * @param spec     Paints and width of the item the layouts are for.
+     * @return The layouts.
+     */
+    public static ListItemTextLayout build(CharSequence title, CharSequence subtitle, Spec spec) {
+        return new ListItemTextLayout(spec, title, subtitle);
+    }
+
+    //
+    // Getters
+    //
+
+    /**
+     * @return Paints and width the layouts were built for.
+     */
+    public Spec getSpec() {
+        return spec;
+    }
+
+    public CharSequence getTitle() {
+        return title;
+    }
+
+    public CharSequence getSubtitle() {
+        return subtitle;
+    }
+
+    /**
+     * @return Height of the title and subtitle together.
+     */
+    int getHeight() {
+        return titleLayout.getHeight() + subtitleLayout.getHeight();
+    }
+
+    //
+    // Drawing
+    //
+
+    /**
+     * Draw the title with the subtitle below it, starting at the canvas origin.
+     */
+    void draw(Canvas canvas) {
+        titleLayout.draw(canvas);
+        canvas.save();
+        canvas.translate(0, titleLayout.getHeight());
+        subtitleLayout.draw(canvas);
+        canvas.restore();
+    }
+
+    //
+    // Helpers
+    //
+
+    /**
+     * Lay out {@code text} on one line, ellipsized to fit {@code width}.
+     */
+    private static StaticLayout createLayout(CharSequence text, TextPaint paint, int width) {
+        // Layouts keep their paint for drawing, so each gets its own copy rather than sharing
+        // one with layouts being built on another thread.
+        final TextPaint layoutPaint = new TextPaint(paint);
+        final CharSequence line = TextUtils.ellipsize(text, layoutPaint, width,
+            TextUtils.TruncateAt.END);
+        return new StaticLayout(line, layoutPaint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f,
+            true);
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Paints and width that determine the layouts built for an item. Specs of items that draw
+     * text the same way are equal, so layouts built for one can be used by any of them.
+     */
+    public static final class Spec {
+
+        final TextPaint titlePaint;
+        final TextPaint subtitlePaint;
+        final int width;
+
+        /**
+         * @param titlePaint    Paint for the title. Must not be changed afterwards.
+         * @param subtitlePaint Paint for the subtitle. Must not be changed afterwards.
+         * @param width         Width available to the text.
+         */
+        Spec(TextPaint titlePaint, TextPaint subtitlePaint, int width) {
+            this.titlePaint = titlePaint;
+            this.subtitlePaint = subtitlePaint;
+            this.width = Math.max(0, width);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Spec)) {
+                return false;
+            }
+            final Spec spec = (Spec) o;
+            return width == spec.width
+                && drawsSame(titlePaint, spec.titlePaint)
+                && drawsSame(subtitlePaint, spec.subtitlePaint);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = width;
+            result = 31 * result + Float.floatToIntBits(titlePaint.getTextSize());
+            result = 31 * result + Float.floatToIntBits(subtitlePaint.getTextSize());
+            return result;
+        }
+
+        private static boolean drawsSame(TextPaint a, TextPaint b) {
+            final Typeface typeface = a.getTypeface();
+            return a == b
+                || (a.getTextSize() == b.getTextSize()
+                && a.getColor() == b.getColor()
+                && a.getFlags() == b.getFlags()
+                && (typeface == null ? b.getTypeface() == null : typeface.equals(b.getTypeface())));
+        }
+    }
+}
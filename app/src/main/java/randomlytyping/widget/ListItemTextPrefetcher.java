@@ -0,0 +1,188 @@
+package randomlytyping.widget;
+
+import android.util.SparseArray;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import randomlytyping.util.BackgroundExecutors;
+
+/**
+ * Builds {@link ListItemTextLayout}s for the rows a list is about to bind on a background
+ * thread, so that binding them only has to hand over the finished layouts.
+ *
+ * Call {@link #onBind(int, ListItemTextLayout.Spec)} from the adapter's
+ * {@code onBindViewHolder()}, which RecyclerView also calls ahead of time for rows it prefetches.
+ * Each call returns the layouts for the bound row if they are ready and starts building the
+ * layouts for the next few rows in the direction the list is moving.
+ */
+public final class ListItemTextPrefetcher {
+
+    // Default number of rows ahead of the bound row to build layouts for.
+    private static final int DEFAULT_DISTANCE = 4;
+
+    private static ExecutorService executor;
+
+    private final Source source;
+    private final int distance;
+
+    // Layouts being built or ready, by adapter position. Only accessed on the main thread.
+    private final SparseArray<Future<ListItemTextLayout>> layouts = new SparseArray<>();
+
+    // Spec the layouts are built for, or null until an item has been measured.
+    private ListItemTextLayout.Spec spec;
+
+    private int lastPosition;
+
+    // Binds that were handed finished layouts, and binds that were not.
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * Text for each adapter position. Called on a background thread.
+     */
+    public interface Source {
+
+        int getCount();
+
+        CharSequence getTitle(int position);
+
+        CharSequence getSubtitle(int position);
+    }
+
+    //
+    // Constructors
+    //
+
+    public ListItemTextPrefetcher(Source source) {
+        this(source, DEFAULT_DISTANCE);
+    }
+
+    /**
+     * @param source   Text for each adapter position.
+     * @param distance Number of rows ahead of the bound row to build layouts for.
+     */
+    public ListItemTextPrefetcher(Source source, int distance) {
+        this.source = source;
+        this.distance = distance;
+    }
+
+    //
+    // Prefetching
+    //
+
+    /**
+     * Get the layouts for a row being bound, if they were built in time, and start building the
+     * layouts for the rows after it.
+     *
+     * @param position Adapter position of the row being bound.
+     * @param spec     Spec of the item being bound, which is null until it has been measured.
+     * @return The row's layouts, or null if the item should build them itself.
+     */
+    public ListItemTextLayout onBind(int position, ListItemTextLayout.Spec spec) {
+        if (spec == null) {
+            return null;
+        }
+        if (!spec.equals(this.spec)) {
+            // Layouts built for another width or text style are no use.
+            clear();
+            this.spec = spec;
+        }
+
+        final ListItemTextLayout layout = take(position);
+        if (layout != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+
+        final int step = position >= lastPosition ? 1 : -1;
+        lastPosition = position;
+        for (int i = 1; i <= distance; i++) {
+            prefetch(position + i * step);
+        }
+        trim(position);
+        return layout;
+    }
+
+    /**
+     * Cancel and forget every layout, for example when the list's data changes.
+     */
+    public void clear() {
+        for (int i = 0; i < layouts.size(); i++) {
+            layouts.valueAt(i).cancel(false);
+        }
+        layouts.clear();
+    }
+
+    /**
+     * @return Number of binds of a measured item that were handed layouts built ahead of time.
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return Number of binds of a measured item whose layouts were not ready.
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    //
+    // Helpers
+    //
+
+    private ListItemTextLayout take(int position) {
+        final Future<ListItemTextLayout> future = layouts.get(position);
+        if (future == null) {
+            return null;
+        }
+        layouts.remove(position);
+        if (!future.isDone()) {
+            // Building on the main thread now is no slower than waiting for the background.
+            future.cancel(false);
+            return null;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return null;
+        }
+    }
+
+    private void prefetch(final int position) {
+        if (position < 0 || position >= source.getCount() || layouts.get(position) != null) {
+            return;
+        }
+        final ListItemTextLayout.Spec spec = this.spec;
+        layouts.put(position, getExecutor().submit(new Callable<ListItemTextLayout>() {
+            @Override
+            public ListItemTextLayout call() {
+                return ListItemTextLayout.build(source.getTitle(position),
+                    source.getSubtitle(position), spec);
+            }
+        }));
+    }
+
+    /**
+     * Drop layouts for rows too far from {@code position} to be bound soon.
+     */
+    private void trim(int position) {
+        for (int i = layouts.size() - 1; i >= 0; i--) {
+            if (Math.abs(layouts.keyAt(i) - position) > 2 * distance) {
+                layouts.valueAt(i).cancel(false);
+                layouts.removeAt(i);
+            }
+        }
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = BackgroundExecutors.newSingleThreadExecutor("TextLayoutPrefetcher");
+        }
+        return executor;
+    }
+}
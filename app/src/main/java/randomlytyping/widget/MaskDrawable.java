@@ -0,0 +1,234 @@
+package randomlytyping.widget;
+
+import android.annotation.TargetApi;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.ColorFilter;
+import android.graphics.ColorMatrixColorFilter;
+import android.graphics.Paint;
+import android.graphics.PixelFormat;
+import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
+import android.graphics.drawable.Drawable;
+import android.os.Build;
+import android.support.annotation.ColorInt;
+import android.support.annotation.DrawableRes;
+
+/**
+ * Drawable for a single-color icon stored as an {@link Bitmap.Config#ALPHA_8} mask and filled with
+ * a color when drawn.
+ *
+ * A mask takes a quarter of the memory of the same icon decoded as ARGB, and one mask can be
+ * drawn in any color, set directly or through a tint or color filter. Masks are the grayscale
+ * icons generated by {@code icons.gradle}, where each pixel's gray level is its coverage.
+ *
+ * {@link Drawable#setTintList(ColorStateList)} and {@link Drawable#setTintMode(PorterDuff.Mode)}
+ * only exist from API 21. To tint a mask on every supported version, go through
+ * {@link android.support.v4.graphics.drawable.DrawableCompat}: wrap the drawable with
+ * {@code DrawableCompat.wrap()} and tint the wrapper, which falls back to
+ * {@link #setColorFilter(ColorFilter)} before API 21.
+ *
+ * Only {@link #decode(Resources, int)} reads those resources as masks. Loaded any other way, e.g.
+ * through {@link Resources#getDrawable(int)} or from XML, a mask is an opaque grayscale bitmap and
+ * draws as a gray square.
+ */
+public class MaskDrawable extends Drawable {
+
+    // Moves a grayscale bitmap's gray level into alpha, for decoders that ignore ALPHA_8.
+    private static final float[] GRAY_TO_ALPHA = {
+        0, 0, 0, 0, 0,
+        0, 0, 0, 0, 0,
+        0, 0, 0, 0, 0,
+        1, 0, 0, 0, 0};
+
+    private final MaskState state;
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+
+    // Filter set through setColorFilter(), which takes precedence over the tint.
+    private ColorFilter colorFilter;
+
+    private ColorStateList tint;
+    private PorterDuff.Mode tintMode = PorterDuff.Mode.SRC_IN;
+    private PorterDuffColorFilter tintFilter;
+    private int tintColor;
+
+    //
+    // Constructors
+    //
+
+    private MaskDrawable(MaskState state) {
+        this.state = state;
+        paint.setColor(Color.WHITE);
+    }
+
+    /**
+     * Decode a mask resource, scaled for the screen density like any drawable resource.
+     *
+     * @param res       Resources to decode the mask from.
+     * @param maskResId Grayscale mask drawable.
+     * @return A white drawable of the mask.
+     */
+    public static MaskDrawable decode(Resources res, @DrawableRes int maskResId) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = Bitmap.Config.ALPHA_8;
+        Bitmap mask = BitmapFactory.decodeResource(res, maskResId, options);
+        if (mask.getConfig() != Bitmap.Config.ALPHA_8) {
+            final Bitmap decoded = mask;
+            mask = Bitmap.createBitmap(decoded.getWidth(), decoded.getHeight(),
+                Bitmap.Config.ALPHA_8);
+            final Paint paint = new Paint();
+            paint.setColorFilter(new ColorMatrixColorFilter(GRAY_TO_ALPHA));
+            new Canvas(mask).drawBitmap(decoded, 0, 0, paint);
+            decoded.recycle();
+        }
+        return new MaskDrawable(new MaskState(mask));
+    }
+
+    //
+    // Color
+    //
+
+    /**
+     * Set the color the mask is filled with, including its alpha.
+     */
+    public void setColor(@ColorInt int color) {
+        if (paint.getColor() != color) {
+            paint.setColor(color);
+            invalidateSelf();
+        }
+    }
+
+    //
+    // Drawable implementation
+    //
+
+    @Override
+    public void draw(Canvas canvas) {
+        canvas.drawBitmap(state.mask, null, getBounds(), paint);
+    }
+
+    @Override
+    public void setAlpha(int alpha) {
+        if (paint.getAlpha() != alpha) {
+            paint.setAlpha(alpha);
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public void setColorFilter(ColorFilter colorFilter) {
+        this.colorFilter = colorFilter;
+        updatePaintFilter();
+        invalidateSelf();
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    @Override
+    public void setTintList(ColorStateList tint) {
+        this.tint = tint;
+        if (updateTintFilter(getState(), true)) {
+            invalidateSelf();
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    @Override
+    public void setTintMode(PorterDuff.Mode tintMode) {
+        this.tintMode = tintMode;
+        if (updateTintFilter(getState(), true)) {
+            invalidateSelf();
+        }
+    }
+
+    @Override
+    public boolean isStateful() {
+        return tint != null && tint.isStateful();
+    }
+
+    @Override
+    protected boolean onStateChange(int[] state) {
+        return updateTintFilter(state, false);
+    }
+
+    @Override
+    public int getOpacity() {
+        return PixelFormat.TRANSLUCENT;
+    }
+
+    @Override
+    public int getIntrinsicWidth() {
+        return state.mask.getWidth();
+    }
+
+    @Override
+    public int getIntrinsicHeight() {
+        return state.mask.getHeight();
+    }
+
+    @Override
+    public ConstantState getConstantState() {
+        return state;
+    }
+
+    /**
+     * Rebuild the tint filter for {@code state}.
+     *
+     * @param force Whether to rebuild it even if the tint color did not change.
+     * @return Whether the filter changed.
+     */
+    private boolean updateTintFilter(int[] state, boolean force) {
+        if (tint == null || tintMode == null) {
+            if (tintFilter == null) {
+                return false;
+            }
+            tintFilter = null;
+        } else {
+            final int color = tint.getColorForState(state, Color.TRANSPARENT);
+            if (!force && tintFilter != null && color == tintColor) {
+                return false;
+            }
+            tintColor = color;
+            tintFilter = new PorterDuffColorFilter(color, tintMode);
+        }
+        updatePaintFilter();
+        return true;
+    }
+
+    private void updatePaintFilter() {
+        paint.setColorFilter(colorFilter != null ? colorFilter : tintFilter);
+    }
+
+    /**
+     * @return The mask bitmap, shared by every drawable created from the same state.
+     */
+    Bitmap getMask() {
+        return state.mask;
+    }
+
+    //
+    // Inner classes
+    //
+
+    private static final class MaskState extends ConstantState {
+
+        final Bitmap mask;
+
+        MaskState(Bitmap mask) {
+            this.mask = mask;
+        }
+
+        @Override
+        public MaskDrawable newDrawable() {
+            return new MaskDrawable(this);
+        }
+
+        @Override
+        public int getChangingConfigurations() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package randomlytyping.widget;
+
+/**
+ * Small cache of measurement results for a tally counter.
+ *
+ * It holds the desired content size, which only changes with text size, typeface or padding,
+ * and remembers the measured size for the last few (widthMeasureSpec, heightMeasureSpec) pairs.
+ * Parents such as a weighted {@link android.widget.LinearLayout} measure children more than once
+ * per layout pass with a handful of different specs, so a few entries are enough.
+ */
+final class MeasureCache {
+
+    private static final int MAX_ENTRIES = 4;
+
+    //
+    // Fields
+    //
+
+    private boolean hasContentSize;
+    private int contentWidth;
+    private int contentHeight;
+
+    // Padding that the content size was computed with.
+    private int paddingLeft;
+    private int paddingTop;
+    private int paddingRight;
+    private int paddingBottom;
+
+    private final int[] widthSpecs = new int[MAX_ENTRIES];
+    private final int[] heightSpecs = new int[MAX_ENTRIES];
+    private final int[] measuredWidths = new int[MAX_ENTRIES];
+    private final int[] measuredHeights = new int[MAX_ENTRIES];
+
+    // Number of valid entries and the slot that the next put() overwrites.
+    private int entryCount;
+    private int nextEntry;
+
+    //
+    // Content size
+    //
+
+    /**
+     * Clear the cache if the padding differs from the padding the content size was computed
+     * with. Padding can change without any overridable setter being called (for example when a
+     * background with padding is set), so it is compared on every measure pass instead.
+     */
+    void validatePadding(int left, int top, int right, int bottom) {
+        if (left != paddingLeft || top != paddingTop || right != paddingRight
+            || bottom != paddingBottom) {
+            paddingLeft = left;
+            paddingTop = top;
+            paddingRight = right;
+            paddingBottom = bottom;
+            clear();
+        }
+    }
+
+    /**
+     * @return True if a content size has been stored since the last {@link #clear()}.
+     */
+    boolean hasContentSize() {
+        return hasContentSize;
+    }
+
+    /**
+     * Store the desired size of the view's contents, including padding.
+     */
+    void setContentSize(int width, int height) {
+        contentWidth = width;
+        contentHeight = height;
+        hasContentSize = true;
+    }
+
+    int getContentWidth() {
+        return contentWidth;
+    }
+
+    int getContentHeight() {
+        return contentHeight;
+    }
+
+    //
+    // Measured sizes
+    //
+
+    /**
+     * @return Index of the entry for the given specs, or {@code -1} if there is none.
+     */
+    int indexOf(int widthMeasureSpec, int heightMeasureSpec) {
+        for (int i = 0; i < entryCount; i++) {
+            if (widthSpecs[i] == widthMeasureSpec && heightSpecs[i] == heightMeasureSpec) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Store a measured size for the given specs, replacing the oldest entry if the cache is full.
+     *
+     * @return Index of the new entry.
+     */
+    int put(int widthMeasureSpec, int heightMeasureSpec, int measuredWidth, int measuredHeight) {
+        final int index = nextEntry;
+        widthSpecs[index] = widthMeasureSpec;
+        heightSpecs[index] = heightMeasureSpec;
+        measuredWidths[index] = measuredWidth;
+        measuredHeights[index] = measuredHeight;
+
+        nextEntry = (nextEntry + 1) % MAX_ENTRIES;
+        entryCount = Math.min(entryCount + 1, MAX_ENTRIES);
+        return index;
+    }
+
+    int getMeasuredWidth(int index) {
+        return measuredWidths[index];
+    }
+
+    int getMeasuredHeight(int index) {
+        return measuredHeights[index];
+    }
+
+    /**
+     * Forget the content size and every measured size. Call this whenever anything that affects
+     * the content size changes.
+     */
+    void clear() {
+        hasContentSize = false;
+        entryCount = 0;
+        nextEntry = 0;
+    }
+}
@@ -0,0 +1,343 @@
+package randomlytyping.widget;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+import android.support.v7.widget.RecyclerView;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import randomlytyping.util.BackgroundExecutors;
+
+/**
+ * {@link RecyclerView.Adapter} for lists too long to hold in memory, which loads items from a
+ * {@link DataSource} in pages on a background thread.
+ *
+ * Only the most recently used pages are kept, so memory stays bounded however far the list is
+ * scrolled. Rows whose page is not loaded yet are bound with a null item and rebound once it
+ * loads. {@link #refresh()} reloads the pages in memory and applies the changes as diffs computed
+ * off the main thread.
+ *
+ * @param <T>  Item type.
+ * @param <VH> View holder type.
+ */
+public abstract class PagedListAdapter<T, VH extends RecyclerView.ViewHolder>
+    extends RecyclerView.Adapter<VH> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_MAX_PAGES = 8;
+
+    private static ExecutorService executor;
+
+    private final DataSource<T> source;
+    private final int pageSize;
+    private final int maxPages;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Loaded pages by page index, least recently used first. Main thread only.
+    private final LinkedHashMap<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Pages being loaded. Main thread only.
+    private final HashSet<Integer> loadingPages = new HashSet<>();
+
+    private int count;
+
+    // Incremented on refresh, so that loads started before it are dropped.
+    private int generation;
+
+    /**
+     * Source of the list's items. Called on a background thread.
+     *
+     * @param <T> Item type.
+     */
+    public interface DataSource<T> {
+
+        /**
+         * @return Number of items in the list.
+         */
+        int getCount();
+
+        /**
+         * Load a range of items.
+         *
+         * @param start Position of the first item.
+         * @param count Number of items, which are all within the list.
+         * @return The items.
+         */
+        List<T> load(int start, int count);
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * @param source Source of the list's items.
+     */
+    protected PagedListAdapter(DataSource<T> source) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    /**
+     * @param source   Source of the list's items.
+     * @param pageSize Number of items loaded at a time.
+     * @param maxPages Number of pages kept in memory, which must cover more than the rows on
+     *                 screen so that visible pages are not evicted.
+     */
+    protected PagedListAdapter(DataSource<T> source, int pageSize, int maxPages) {
+        if (pageSize <= 0 || maxPages <= 0) {
+            throw new IllegalArgumentException("Page size and page count must be positive.");
+        }
+        this.source = source;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        refresh();
+    }
+
+    //
+    // Items
+    //
+
+    /**
+     * Get the item at a position, starting to load its page if it is not in memory.
+     *
+     * @param position Adapter position.
+     * @return The item, or null if its page is still loading.
+     */
+    public T getItem(int position) {
+        final int page = position / pageSize;
+        final List<T> items = pages.get(page);
+        if (items == null) {
+            loadPage(page);
+            return null;
+        }
+        return items.get(position - page * pageSize);
+    }
+
+    /**
+     * @return Number of items currently held in memory.
+     */
+    public int getLoadedItemCount() {
+        int loaded = 0;
+        for (List<T> items : pages.values()) {
+            loaded += items.size();
+        }
+        return loaded;
+    }
+
+    /**
+     * @return Whether any page is loading.
+     */
+    boolean isLoading() {
+        return !loadingPages.isEmpty();
+    }
+
+    /**
+     * Reload the list from the data source. If the count is unchanged, the pages in memory are
+     * reloaded and each is diffed against its old items on the background thread; otherwise the
+     * whole list changes.
+     */
+    public void refresh() {
+        final int refreshGeneration = ++generation;
+        final int oldCount = count;
+        final Map<Integer, List<T>> oldPages = new LinkedHashMap<>(pages);
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final int newCount = source.getCount();
+                if (newCount != oldCount) {
+                    post(refreshGeneration, new Runnable() {
+                        @Override
+                        public void run() {
+                            count = newCount;
+                            pages.clear();
+                            notifyDataSetChanged();
+                        }
+                    });
+                    return;
+                }
+                for (Map.Entry<Integer, List<T>> entry : oldPages.entrySet()) {
+                    reloadPage(refreshGeneration, entry.getKey(), entry.getValue());
+                }
+            }
+        });
+    }
+
+    /**
+     * @return Whether two items represent the same thing, for diffing.
+     */
+    protected abstract boolean areItemsTheSame(T oldItem, T newItem);
+
+    /**
+     * @return Whether two items that are the same thing look the same, for diffing.
+     */
+    protected abstract boolean areContentsTheSame(T oldItem, T newItem);
+
+    //
+    // RecyclerView.Adapter implementation
+    //
+
+    @Override
+    public int getItemCount() {
+        return count;
+    }
+
+    //
+    // Loading
+    //
+
+    private void loadPage(final int page) {
+        if (!loadingPages.add(page)) {
+            return;
+        }
+        final int loadGeneration = generation;
+        final int start = page * pageSize;
+        final int size = Math.min(pageSize, count - start);
+        getExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<T> items = source.load(start, size);
+                mainHandler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        loadingPages.remove(page);
+                        if (loadGeneration != generation) {
+                            // Stale; rebind the rows still in the list so that they load again.
+                            if (start < count) {
+                                notifyItemRangeChanged(start, Math.min(size, count - start));
+                            }
+                            return;
+                        }
+                        putPage(page, items);
+                        notifyItemRangeChanged(start, items.size());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Reload a page on the background thread and apply the differences to the old items.
+     */
+    private void reloadPage(int refreshGeneration, final int page, List<T> oldItems) {
+        final int start = page * pageSize;
+        final List<T> newItems = source.load(start, oldItems.size());
+        final DiffUtil.DiffResult diff = DiffUtil.calculateDiff(
+            new PageDiffCallback(oldItems, newItems), false);
+        post(refreshGeneration, new Runnable() {
+            @Override
+            public void run() {
+                putPage(page, newItems);
+                diff.dispatchUpdatesTo(new OffsetListUpdateCallback(start));
+            }
+        });
+    }
+
+    /**
+     * Keep a page, evicting the least recently used pages beyond the limit.
+     */
+    private void putPage(int page, List<T> items) {
+        pages.put(page, items);
+        final Iterator<Integer> eldest = pages.keySet().iterator();
+        while (pages.size() > maxPages) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Run {@code runnable} on the main thread unless the list is refreshed again first.
+     */
+    private void post(final int refreshGeneration, final Runnable runnable) {
+        mainHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (refreshGeneration == generation) {
+                    runnable.run();
+                }
+            }
+        });
+    }
+
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = BackgroundExecutors.newSingleThreadExecutor("PagedListLoader");
+        }
+        return executor;
+    }
+
+    //
+    // Inner classes
+    //
+
+    private class PageDiffCallback extends DiffUtil.Callback {
+
+        private final List<T> oldItems;
+        private final List<T> newItems;
+
+        PageDiffCallback(List<T> oldItems, List<T> newItems) {
+            this.oldItems = oldItems;
+            this.newItems = newItems;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldItems.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newItems.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return PagedListAdapter.this.areItemsTheSame(oldItems.get(oldItemPosition),
+                newItems.get(newItemPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            return PagedListAdapter.this.areContentsTheSame(oldItems.get(oldItemPosition),
+                newItems.get(newItemPosition));
+        }
+    }
+
+    /**
+     * Applies the updates of a page's diff at the page's position in the list.
+     */
+    private class OffsetListUpdateCallback implements ListUpdateCallback {
+
+        private final int offset;
+
+        OffsetListUpdateCallback(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public void onInserted(int position, int count) {
+            notifyItemRangeInserted(offset + position, count);
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            notifyItemRangeRemoved(offset + position, count);
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            notifyItemMoved(offset + fromPosition, offset + toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            notifyItemRangeChanged(offset + position, count, payload);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package randomlytyping.widget;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.v7.widget.RecyclerView;
+import android.util.SparseArray;
+
+/**
+ * {@link RecyclerView.RecycledViewPool} that can fill itself with rows ahead of time, so that the
+ * first scroll of a list binds rows it already has instead of inflating new ones.
+ *
+ * Rows are created one at a time whenever the main thread is idle, between the frames of
+ * whatever it is already doing, and the pool keeps every row it was asked to create.
+ */
+public class PrewarmedViewPool extends RecyclerView.RecycledViewPool {
+
+    // RecycledViewPool's own limit of rows kept per view type.
+    private static final int DEFAULT_MAX_RECYCLED_VIEWS = 5;
+
+    // Idle handlers still creating rows, by view type. Main thread only.
+    private final SparseArray<MessageQueue.IdleHandler> prewarmers = new SparseArray<>();
+
+    /**
+     * Create rows of a view type whenever the main thread is idle, until the pool holds
+     * {@code count} of them. Must be called on the main thread.
+     *
+     * @param list     List whose adapter creates the rows, which they are created as children of.
+     * @param viewType View type of the rows.
+     * @param count    Number of rows to have ready.
+     */
+    public void prewarm(final RecyclerView list, final int viewType, final int count) {
+        cancelPrewarm(viewType);
+        if (count <= 0) {
+            return;
+        }
+        setMaxRecycledViews(viewType, Math.max(count, DEFAULT_MAX_RECYCLED_VIEWS));
+
+        final MessageQueue.IdleHandler prewarmer = new MessageQueue.IdleHandler() {
+            private int created;
+
+            @Override
+            public boolean queueIdle() {
+                final RecyclerView.Adapter adapter = list.getAdapter();
+                if (adapter == null || created >= count
+                    || getRecycledViewCount(viewType) >= count) {
+                    prewarmers.remove(viewType);
+                    return false;
+                }
+                putRecycledView(adapter.createViewHolder(list, viewType));
+                created++;
+                // Keep going on the next idle pass, so that each pass creates a single row.
+                return true;
+            }
+        };
+        prewarmers.put(viewType, prewarmer);
+        Looper.myQueue().addIdleHandler(prewarmer);
+    }
+
+    /**
+     * Stop creating rows of a view type, keeping the ones already created.
+     */
+    public void cancelPrewarm(int viewType) {
+        final MessageQueue.IdleHandler prewarmer = prewarmers.get(viewType);
+        if (prewarmer != null) {
+            Looper.myQueue().removeIdleHandler(prewarmer);
+            prewarmers.remove(viewType);
+        }
+    }
+
+    /**
+     * Stop creating rows of every view type.
+     */
+    public void cancelPrewarm() {
+        for (int i = prewarmers.size() - 1; i >= 0; i--) {
+            cancelPrewarm(prewarmers.keyAt(i));
+        }
+    }
+
+    /**
+     * @return Whether rows of any view type are still being created.
+     */
+    public boolean isPrewarming() {
+        return prewarmers.size() > 0;
+    }
+}
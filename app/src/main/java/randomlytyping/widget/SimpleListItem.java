@@ -17,37 +17,92 @@
 package randomlytyping.widget;
 
 import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.Nullable;
+import android.support.annotation.StringRes;
+import android.support.annotation.StyleRes;
+import android.text.Layout;
+import android.text.TextPaint;
+import android.text.TextUtils;
 import android.util.AttributeSet;
+import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import butterknife.BindView;
-import butterknife.ButterKnife;
 import randomlytyping.mldr.R;
+import randomlytyping.util.Icons;
 
 /**
  * Custom {@link ViewGroup} for displaying the example list items from the launch screen but
  * without the extra measure/layout pass from the {@link android.widget.RelativeLayout}.
+ *
+ * An item whose layout has no title and subtitle text views draws the text itself from a
+ * {@link ListItemTextLayout}, which can be built ahead of time off the main thread.
  */
 public class SimpleListItem extends ViewGroup {
+
+    // Text appearance attributes used for text the item draws itself, in ascending order.
+    private static final int[] TEXT_APPEARANCE_ATTRS = {
+        android.R.attr.textSize, android.R.attr.textColor};
+
     //
     // Fields
     //
 
-    @BindView(R.id.icon)
     ImageView icon;
 
-    @BindView(R.id.title)
+    // Title and subtitle views, both null if the item draws its text itself.
+    @Nullable
     TextView titleView;
 
-    @BindView(R.id.subtitle)
+    @Nullable
     TextView subtitleView;
 
+    // Resources currently bound to the children, or 0 if nothing has been bound.
+    private int boundIconResId;
+    private int boundTitleResId;
+    private int boundSubtitleResId;
+
+    // Whether the height is computed once rather than measured from content.
+    private boolean fixedHeight;
+
+    // Height computed for fixed-height mode.
+    private int fixedHeightSize;
+
+    // Text appearances for text the item draws itself.
+    private final int titleTextAppearance;
+    private final int subtitleTextAppearance;
+
+    // Text drawn by the item itself when it has no text views.
+    private TextPaint titlePaint;
+    private TextPaint subtitlePaint;
+    private CharSequence title = "";
+    private CharSequence subtitle = "";
+    private ListItemTextLayout.Spec textLayoutSpec;
+    private ListItemTextLayout textLayout;
+    private int textLeft;
+
     //
     // Constructors
     //
 
+    /**
+     * Constructor for an item built in code, which gets its children from
+     * {@link #setChildren(ImageView, TextView, TextView)}.
+     *
+     * @param context The current context.
+     */
+    public SimpleListItem(Context context) {
+        this(context, null);
+    }
+
     /**
      * Constructor.
      *
@@ -56,12 +111,278 @@ public class SimpleListItem extends ViewGroup {
      */
     public SimpleListItem(Context context, AttributeSet attrs) {
         super(context, attrs);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.SimpleListItem);
+        fixedHeight = a.getBoolean(R.styleable.SimpleListItem_fixedHeight, false);
+        titleTextAppearance = a.getResourceId(R.styleable.SimpleListItem_titleTextAppearance,
+            R.style.TextAppearance_ListItem_Title);
+        subtitleTextAppearance = a.getResourceId(
+            R.styleable.SimpleListItem_subtitleTextAppearance,
+            R.style.TextAppearance_ListItem_Subtitle);
+        a.recycle();
     }
 
     @Override
     protected void onFinishInflate() {
         super.onFinishInflate();
-        ButterKnife.bind(this);
+        // Direct lookups rather than ButterKnife.bind(), which finds the generated binding by
+        // reflection and allocates an unbinder for every row inflated.
+        icon = findViewById(R.id.icon);
+        titleView = findViewById(R.id.title);
+        subtitleView = findViewById(R.id.subtitle);
+        onChildrenReady();
+    }
+
+    /**
+     * Add children built in code instead of inflated, and set up the item as inflation would.
+     *
+     * @param icon         Icon view.
+     * @param titleView    Title view, or null for an item that draws its own text.
+     * @param subtitleView Subtitle view, or null for an item that draws its own text.
+     */
+    void setChildren(ImageView icon, @Nullable TextView titleView,
+                     @Nullable TextView subtitleView) {
+        this.icon = icon;
+        this.titleView = titleView;
+        this.subtitleView = subtitleView;
+        addView(icon);
+        if (titleView != null) {
+            addView(titleView);
+            addView(subtitleView);
+        }
+        onChildrenReady();
+    }
+
+    private void onChildrenReady() {
+        if (titleView == null) {
+            createTextPaints();
+            setWillNotDraw(false);
+        }
+        if (fixedHeight) {
+            applyFixedHeight();
+        }
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+
+        // Font scale and density affect text sizes and the line heights the fixed height is
+        // computed from.
+        if (titleView == null) {
+            createTextPaints();
+            textLayoutSpec = null;
+            textLayout = null;
+        }
+        if (fixedHeight) {
+            applyFixedHeight();
+        }
+        requestLayout();
+    }
+
+    //
+    // Binding
+    //
+
+    /**
+     * Bind content to the item, leaving children whose content is unchanged untouched so that
+     * they do not request layout and can keep their measurements.
+     *
+     * @param iconResId     Icon mask drawable, loaded through {@link Icons}.
+     * @param titleResId    Title text.
+     * @param subtitleResId Subtitle text.
+     */
+    public void bind(@DrawableRes int iconResId, @StringRes int titleResId,
+                     @StringRes int subtitleResId) {
+        if (boundIconResId != iconResId) {
+            // Shares one decoded bitmap per icon with every other row.
+            icon.setImageDrawable(Icons.getDrawable(getContext(), iconResId));
+            boundIconResId = iconResId;
+        }
+        if (titleView == null) {
+            if (boundTitleResId != titleResId || boundSubtitleResId != subtitleResId) {
+                setText(getResources().getText(titleResId),
+                    getResources().getText(subtitleResId));
+                boundTitleResId = titleResId;
+                boundSubtitleResId = subtitleResId;
+            }
+            return;
+        }
+        if (boundTitleResId != titleResId) {
+            titleView.setText(titleResId);
+            boundTitleResId = titleResId;
+        }
+        if (boundSubtitleResId != subtitleResId) {
+            subtitleView.setText(subtitleResId);
+            boundSubtitleResId = subtitleResId;
+        }
+    }
+
+    /**
+     * Bind an icon and title and subtitle layouts built ahead of time.
+     *
+     * @param iconResId  Icon mask drawable, loaded through {@link Icons}.
+     * @param textLayout Title and subtitle layouts.
+     * @see #setTextLayout(ListItemTextLayout)
+     */
+    public void bind(@DrawableRes int iconResId, ListItemTextLayout textLayout) {
+        if (boundIconResId != iconResId) {
+            icon.setImageDrawable(Icons.getDrawable(getContext(), iconResId));
+            boundIconResId = iconResId;
+        }
+        setTextLayout(textLayout);
+    }
+
+    /**
+     * Set the title and subtitle text. An item that draws its own text builds its layouts on
+     * the calling thread.
+     *
+     * @param title    Title text.
+     * @param subtitle Subtitle text.
+     */
+    public void setText(CharSequence title, CharSequence subtitle) {
+        boundTitleResId = 0;
+        boundSubtitleResId = 0;
+        if (titleView != null) {
+            titleView.setText(title);
+            subtitleView.setText(subtitle);
+            return;
+        }
+        if (TextUtils.equals(this.title, title) && TextUtils.equals(this.subtitle, subtitle)) {
+            return;
+        }
+        this.title = title;
+        this.subtitle = subtitle;
+        if (fixedHeight && textLayoutSpec != null) {
+            // The size cannot change, so only the text needs to be laid out again.
+            textLayout = ListItemTextLayout.build(title, subtitle, textLayoutSpec);
+            invalidate();
+        } else {
+            textLayout = null;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Set the title and subtitle from layouts built ahead of time. An item that draws its own
+     * text uses them as they are if they were built for its current {@link #getTextLayoutSpec()
+     * spec}; otherwise only their text is used.
+     *
+     * @param layout Title and subtitle layouts.
+     */
+    public void setTextLayout(ListItemTextLayout layout) {
+        if (titleView != null || !layout.getSpec().equals(textLayoutSpec)) {
+            setText(layout.getTitle(), layout.getSubtitle());
+            return;
+        }
+        boundTitleResId = 0;
+        boundSubtitleResId = 0;
+        title = layout.getTitle();
+        subtitle = layout.getSubtitle();
+        textLayout = layout;
+        if (fixedHeight) {
+            invalidate();
+        } else {
+            requestLayout();
+        }
+    }
+
+    /**
+     * @return The spec title and subtitle layouts are built with for this item, or null if the
+     * item has not been measured yet or uses text views.
+     */
+    public ListItemTextLayout.Spec getTextLayoutSpec() {
+        return textLayoutSpec;
+    }
+
+    //
+    // Fixed height
+    //
+
+    /**
+     * Set whether the item's height is computed once from its icon's layout height and one line
+     * each of title and subtitle, rather than measured from its content. The title and subtitle
+     * are then sized exactly, so binding new text only redraws them instead of requesting layout,
+     * and every item in a list has the same height.
+     *
+     * Requires an icon with an exact layout height and single-line title and subtitle.
+     *
+     * @param fixedHeight Whether to use a fixed height.
+     */
+    public void setFixedHeight(boolean fixedHeight) {
+        if (this.fixedHeight == fixedHeight) {
+            return;
+        }
+        this.fixedHeight = fixedHeight;
+        if (fixedHeight) {
+            applyFixedHeight();
+        } else if (titleView != null) {
+            setWrapContent(titleView);
+            setWrapContent(subtitleView);
+        }
+        requestLayout();
+    }
+
+    /**
+     * @return Whether the item's height is fixed rather than measured from its content.
+     */
+    public boolean isFixedHeight() {
+        return fixedHeight;
+    }
+
+    /**
+     * Size the title and subtitle to exactly one line each and compute the item's height.
+     */
+    private void applyFixedHeight() {
+        MarginLayoutParams lp = (MarginLayoutParams) icon.getLayoutParams();
+        if (lp.height < 0) {
+            throw new IllegalStateException("A fixed-height item needs an exact icon height.");
+        }
+        final int iconHeight = lp.height + lp.topMargin + lp.bottomMargin;
+
+        if (titleView == null) {
+            fixedHeightSize = getPaddingTop() + getPaddingBottom() + Math.max(iconHeight,
+                getLineHeight(titlePaint, true) + getLineHeight(subtitlePaint, true));
+            return;
+        }
+
+        setSingleLine(titleView);
+        lp = (MarginLayoutParams) titleView.getLayoutParams();
+        final int titleHeight = lp.height + lp.topMargin + lp.bottomMargin;
+
+        setSingleLine(subtitleView);
+        lp = (MarginLayoutParams) subtitleView.getLayoutParams();
+        final int subtitleHeight = lp.height + lp.topMargin + lp.bottomMargin;
+
+        fixedHeightSize = getPaddingTop() + getPaddingBottom() +
+            Math.max(iconHeight, titleHeight + subtitleHeight);
+    }
+
+    /**
+     * Give {@code view} the remaining width and the exact height of one line of its text, the
+     * same height a single-line layout with default line spacing would have.
+     */
+    private static void setSingleLine(TextView view) {
+        final LayoutParams lp = view.getLayoutParams();
+        lp.width = LayoutParams.MATCH_PARENT;
+        lp.height = getLineHeight(view.getPaint(), view.getIncludeFontPadding())
+            + view.getCompoundPaddingTop() + view.getCompoundPaddingBottom();
+        view.setLayoutParams(lp);
+    }
+
+    /**
+     * @return Height of a single line of text drawn with {@code paint}.
+     */
+    private static int getLineHeight(Paint paint, boolean includeFontPadding) {
+        final Paint.FontMetricsInt fm = paint.getFontMetricsInt();
+        return includeFontPadding ? fm.bottom - fm.top : fm.descent - fm.ascent;
+    }
+
+    private static void setWrapContent(View view) {
+        final LayoutParams lp = view.getLayoutParams();
+        lp.width = LayoutParams.WRAP_CONTENT;
+        lp.height = LayoutParams.WRAP_CONTENT;
+        view.setLayoutParams(lp);
     }
 
     //
@@ -106,38 +427,27 @@ public class SimpleListItem extends ViewGroup {
 
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        if (titleView == null) {
+            measureWithTextLayout(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
 
         // Measure icon.
         measureChildWithMargins(icon, widthMeasureSpec, 0, heightMeasureSpec, 0);
 
-        // Figure out how much width the icon used.
+        // Figure out how much total space the icon used.
         MarginLayoutParams lp = (MarginLayoutParams) icon.getLayoutParams();
-        int widthUsed = icon.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
+        int iconWidth = icon.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
+        int iconHeight = icon.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
 
-        int heightUsed = 0;
+        // Measure title, passing the width already used by the icon.
+        measureChildWithMargins(titleView, widthMeasureSpec, iconWidth, heightMeasureSpec, 0);
 
-        // Measure title
-        measureChildWithMargins(
-            titleView,
-            // Pass width constraints and width already used.
-            widthMeasureSpec, widthUsed,
-            // Pass height constraints and height already used.
-            heightMeasureSpec, heightUsed
-        );
-
-        // Measure the Subtitle.
-        measureChildWithMargins(
-            subtitleView,
-            // Pass width constraints and width already used.
-            widthMeasureSpec, widthUsed,
-            // Pass height constraints and height already used.
-            heightMeasureSpec, titleView.getMeasuredHeight());
+        // Measure the subtitle below the title.
+        measureChildWithMargins(subtitleView, widthMeasureSpec, iconWidth, heightMeasureSpec,
+            titleView.getMeasuredHeight());
 
         // Calculate this view's measured width and height.
-
-        // Figure out how much total space the icon used.
-        int iconWidth = icon.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
-        int iconHeight = icon.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
         lp = (MarginLayoutParams) titleView.getLayoutParams();
 
         // Figure out how much total space the title used.
@@ -152,9 +462,11 @@ public class SimpleListItem extends ViewGroup {
         // The width taken by the children + padding.
         int width = getPaddingTop() + getPaddingBottom() +
             iconWidth + Math.max(titleWidth, subtitleWidth);
-        // The height taken by the children + padding.
-        int height = getPaddingTop() + getPaddingBottom() +
-            Math.max(iconHeight, titleHeight + subtitleHeight);
+        // The height taken by the children + padding, unless it is fixed.
+        int height = fixedHeight
+            ? fixedHeightSize
+            : getPaddingTop() + getPaddingBottom() +
+                Math.max(iconHeight, titleHeight + subtitleHeight);
 
         // Reconcile the measured dimensions with the this view's constraints and
         // set the final measured width and height.
@@ -164,6 +476,40 @@ public class SimpleListItem extends ViewGroup {
         );
     }
 
+    /**
+     * Measure an item that draws its own text: the text gets whatever width the icon leaves.
+     */
+    private void measureWithTextLayout(int widthMeasureSpec, int heightMeasureSpec) {
+        measureChildWithMargins(icon, widthMeasureSpec, 0, heightMeasureSpec, 0);
+
+        final MarginLayoutParams lp = (MarginLayoutParams) icon.getLayoutParams();
+        final int iconWidth = icon.getMeasuredWidth() + lp.leftMargin + lp.rightMargin;
+        final int iconHeight = icon.getMeasuredHeight() + lp.topMargin + lp.bottomMargin;
+        final int paddingWidth = getPaddingLeft() + getPaddingRight();
+
+        // Without a width constraint, the text is as wide as its longer line.
+        final int textWidth = MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED
+            ? (int) Math.ceil(Math.max(Layout.getDesiredWidth(title, titlePaint),
+                Layout.getDesiredWidth(subtitle, subtitlePaint)))
+            : MeasureSpec.getSize(widthMeasureSpec) - paddingWidth - iconWidth;
+
+        if (textLayoutSpec == null || textLayoutSpec.width != textWidth) {
+            textLayoutSpec = new ListItemTextLayout.Spec(titlePaint, subtitlePaint, textWidth);
+        }
+        if (textLayout == null || !textLayout.getSpec().equals(textLayoutSpec)) {
+            textLayout = ListItemTextLayout.build(title, subtitle, textLayoutSpec);
+        }
+
+        final int width = paddingWidth + iconWidth + textLayoutSpec.width;
+        final int height = fixedHeight
+            ? fixedHeightSize
+            : getPaddingTop() + getPaddingBottom() + Math.max(iconHeight, textLayout.getHeight());
+        setMeasuredDimension(
+            resolveSize(width, widthMeasureSpec),
+            resolveSize(height, heightMeasureSpec)
+        );
+    }
+
     @Override
     protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
         MarginLayoutParams layoutParams = (MarginLayoutParams) icon.getLayoutParams();
@@ -179,6 +525,12 @@ public class SimpleListItem extends ViewGroup {
         // the icon's right margin.
         x += icon.getMeasuredWidth() + layoutParams.rightMargin;
 
+        // Text the item draws itself starts at the same x-coordinate.
+        if (titleView == null) {
+            textLeft = x;
+            return;
+        }
+
         // Add in the title's left margin.
         layoutParams = (MarginLayoutParams) titleView.getLayoutParams();
         x += layoutParams.leftMargin;
@@ -204,6 +556,42 @@ public class SimpleListItem extends ViewGroup {
         subtitleView.layout(x, y,
             x + subtitleView.getMeasuredWidth(), y + subtitleView.getMeasuredHeight());
     }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (textLayout == null) {
+            return;
+        }
+        canvas.save();
+        canvas.translate(textLeft, getPaddingTop());
+        textLayout.draw(canvas);
+        canvas.restore();
+    }
+
+    //
+    // Helpers
+    //
+
+    private void createTextPaints() {
+        titlePaint = createTextPaint(titleTextAppearance);
+        subtitlePaint = createTextPaint(subtitleTextAppearance);
+    }
+
+    /**
+     * Create a paint for text the item draws itself from a text appearance style.
+     */
+    private TextPaint createTextPaint(@StyleRes int textAppearance) {
+        final TextPaint paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        paint.density = getResources().getDisplayMetrics().density;
+
+        final TypedArray a = getContext().obtainStyledAttributes(textAppearance,
+            TEXT_APPEARANCE_ATTRS);
+        paint.setTextSize(a.getDimension(0, paint.getTextSize()));
+        final ColorStateList textColor = a.getColorStateList(1);
+        paint.setColor(textColor != null ? textColor.getDefaultColor() : Color.BLACK);
+        a.recycle();
+        return paint;
+    }
 }
 
 
@@ -0,0 +1,130 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.v4.content.ContextCompat;
+import android.text.TextUtils;
+import android.util.TypedValue;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import randomlytyping.mldr.R;
+
+/**
+ * Builds {@link SimpleListItem} rows equivalent to {@code R.layout.list_item_simple} in code.
+ *
+ * Inflating the layout parses XML, resolves the theme attributes and text appearances, and looks
+ * up the children for every row. The factory resolves every style value once and then only
+ * constructs views, which makes creating rows, e.g. while a list first fills the screen, cheaper.
+ */
+public final class SimpleListItemFactory {
+
+    // Text appearance attributes, in ascending order.
+    private static final int[] TEXT_APPEARANCE_ATTRS = {
+        android.R.attr.textSize, android.R.attr.textColor};
+
+    private final Context context;
+
+    // Pre-resolved style values.
+    private final int backgroundResId;
+    private final int paddingVertical;
+    private final int paddingEnd;
+    private final int iconSize;
+    private final int iconMarginStart;
+    private final int iconMarginEnd;
+    private final float titleTextSize;
+    private final ColorStateList titleTextColor;
+    private final float subtitleTextSize;
+    private final ColorStateList subtitleTextColor;
+
+    //
+    // Constructors
+    //
+
+    /**
+     * @param context Themed context the rows are created in, usually the activity.
+     */
+    public SimpleListItemFactory(Context context) {
+        this.context = context;
+
+        final Resources res = context.getResources();
+        paddingVertical = res.getDimensionPixelSize(R.dimen.list_item_padding_vertical);
+        paddingEnd = res.getDimensionPixelSize(R.dimen.activity_horizontal_margin);
+        iconSize = res.getDimensionPixelSize(R.dimen.list_item_icon_size);
+        iconMarginStart = res.getDimensionPixelSize(R.dimen.list_item_icon_margin_start);
+        iconMarginEnd = res.getDimensionPixelSize(R.dimen.list_item_icon_margin_end);
+
+        // Attributes in ascending order, framework before app.
+        TypedArray a = context.obtainStyledAttributes(new int[]{
+            android.R.attr.textColorSecondary, R.attr.selectableItemBackground});
+        subtitleTextColor = a.getColorStateList(0);
+        backgroundResId = a.getResourceId(1, 0);
+        a.recycle();
+
+        a = context.obtainStyledAttributes(R.style.TextAppearance_AppCompat_Subhead,
+            TEXT_APPEARANCE_ATTRS);
+        titleTextSize = a.getDimension(0, 0);
+        titleTextColor = a.getColorStateList(1);
+        a.recycle();
+
+        // The subtitle's color is overridden with the theme's secondary text color, as in the
+        // layout.
+        a = context.obtainStyledAttributes(R.style.TextAppearance_AppCompat_Body1,
+            TEXT_APPEARANCE_ATTRS);
+        subtitleTextSize = a.getDimension(0, 0);
+        a.recycle();
+    }
+
+    //
+    // Rows
+    //
+
+    /**
+     * Create a row with fixed height, as inflating {@code R.layout.list_item_simple} would.
+     *
+     * @return The row.
+     */
+    public SimpleListItem create() {
+        final SimpleListItem item = new SimpleListItem(context);
+        item.setLayoutParams(new ViewGroup.LayoutParams(
+            ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        item.setPaddingRelative(0, paddingVertical, paddingEnd, paddingVertical);
+        if (backgroundResId != 0) {
+            item.setBackground(ContextCompat.getDrawable(context, backgroundResId));
+        }
+        item.setClickable(true);
+        item.setFocusable(true);
+
+        final ImageView icon = new ImageView(context);
+        final ViewGroup.MarginLayoutParams iconParams =
+            new ViewGroup.MarginLayoutParams(iconSize, iconSize);
+        iconParams.setMarginStart(iconMarginStart);
+        iconParams.setMarginEnd(iconMarginEnd);
+        icon.setLayoutParams(iconParams);
+
+        item.setChildren(icon, createTextView(titleTextSize, titleTextColor),
+            createTextView(subtitleTextSize, subtitleTextColor));
+        item.setFixedHeight(true);
+        return item;
+    }
+
+    //
+    // Helpers
+    //
+
+    private TextView createTextView(float textSize, ColorStateList textColor) {
+        final TextView view = new TextView(context);
+        view.setLayoutParams(new ViewGroup.MarginLayoutParams(
+            ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        view.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSize);
+        if (textColor != null) {
+            view.setTextColor(textColor);
+        }
+        view.setMaxLines(1);
+        view.setEllipsize(TextUtils.TruncateAt.END);
+        return view;
+    }
+}
@@ -6,6 +6,29 @@ package randomlytyping.widget;
  */
 public interface TallyCounter {
 
+    /**
+     * Render mode that draws the count as text.
+     */
+    int RENDER_MODE_TEXT = 0;
+
+    /**
+     * Render mode that blits the count from a pre-rasterized digit atlas.
+     */
+    int RENDER_MODE_ATLAS = 1;
+
+    /**
+     * Bounds policy where the counter is sized for its maximum count, so that count changes
+     * only ever trigger a redraw and never a layout pass.
+     */
+    int BOUNDS_FIXED = 0;
+
+    /**
+     * Bounds policy where the counter is sized for its current count, for proportional fonts.
+     * A count change triggers a layout pass only when the new count is wider than the width the
+     * counter was last measured with.
+     */
+    int BOUNDS_VARIABLE = 1;
+
     /**
      * Reset the counter.
      */
@@ -17,15 +40,49 @@ public interface TallyCounter {
     void increment();
 
     /**
-     * @return The current count of the counter.
+     * Increment the counter by {@code delta} in one step, so that a burst of increments costs a
+     * single format and redraw.
+     */
+    void incrementBy(int delta);
+
+    /**
+     * @return The current count of the counter, capped at {@link Integer#MAX_VALUE}.
      */
     int getCount();
 
+    /**
+     * @return The current count of the counter.
+     */
+    long getLongCount();
+
     /**
      * Set the counter value.
+     *
+     * Under {@link #BOUNDS_FIXED}, implementations must not call
+     * {@link android.view.View#requestLayout()} from here.
      */
     void setCount(int count);
 
+    /**
+     * Set the counter value, for counters whose maximum exceeds {@link Integer#MAX_VALUE}.
+     *
+     * @see #setCount(int)
+     */
+    void setLongCount(long count);
+
+    /**
+     * @return The largest count the counter will display.
+     */
+    long getMaxCount();
+
+    /**
+     * Set the largest count the counter will display. The counter is sized for, and pads counts
+     * to, the number of digits in {@code maxCount}.
+     *
+     * @param maxCount A non-negative maximum count.
+     */
+    void setMaxCount(long maxCount);
+
 }
 
 
@@ -0,0 +1,183 @@
+package randomlytyping.widget;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tally count that can be incremented cheaply from any thread, independent of any view.
+ *
+ * Increments are spread over several striped cells, like {@code java.util.concurrent.LongAdder}
+ * (which is not available before API 24), so threads counting concurrently rarely contend on
+ * the same cell. The cells are a cache line apart, so threads updating different cells do not
+ * false-share a line either. Each observer is notified only when the count goes from "seen" to
+ * "changed" for that observer; after that, further increments are silent to it until it calls
+ * {@link #acknowledge(Observer)}. That lets a view coalesce any number of increments into a single
+ * redraw per frame, whatever other observers do.
+ */
+public final class TallyCounterModel {
+
+    /**
+     * Observer notified when the count changes after having been acknowledged.
+     */
+    public interface Observer {
+
+        /**
+         * Called on the incrementing thread when the count first changes after this observer's
+         * last call to {@link #acknowledge(Observer)}.
+         *
+         * @param model The model whose count changed.
+         */
+        void onCountChanged(TallyCounterModel model);
+    }
+
+    // Array slots per cell, as a shift: 8 longs fill a 64-byte cache line, so no two cells ever
+    // share a line, wherever the array starts.
+    private static final int CELL_SHIFT = 3;
+
+    //
+    // Fields
+    //
+
+    // Striped cells, using every (1 << CELL_SHIFT)th slot; the slots between them are padding.
+    private final AtomicLongArray cells;
+    private final int cellMask;
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions =
+        new CopyOnWriteArrayList<>();
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Constructor.
+     */
+    public TallyCounterModel() {
+        // Use a power of two of at least twice the processor count so the cell can be masked.
+        final int minCells = Runtime.getRuntime().availableProcessors() * 2;
+        int cellCount = 1;
+        while (cellCount < minCells) {
+            cellCount <<= 1;
+        }
+        cells = new AtomicLongArray(cellCount << CELL_SHIFT);
+        cellMask = cellCount - 1;
+    }
+
+    //
+    // Counting
+    //
+
+    /**
+     * Increment the count by one. Safe to call from any thread.
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Add {@code delta} to the count. Safe to call from any thread.
+     */
+    public void add(long delta) {
+        cells.addAndGet(((int) Thread.currentThread().getId() & cellMask) << CELL_SHIFT, delta);
+        for (int i = 0; i < subscriptions.size(); i++) {
+            final Subscription subscription = subscriptions.get(i);
+            // Read before the compare-and-set, so that increments between notifications only
+            // read the flag's cache line rather than contending to write it.
+            if (!subscription.changed.get() && subscription.changed.compareAndSet(false, true)) {
+                subscription.observer.onCountChanged(this);
+            }
+        }
+    }
+
+    /**
+     * Reset the count to zero. Increments that race with a reset may or may not be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < cells.length(); i += 1 << CELL_SHIFT) {
+            cells.set(i, 0);
+        }
+        add(0);
+    }
+
+    /**
+     * @return The current count. Not a snapshot: increments made while summing may or may not
+     * be included.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += 1 << CELL_SHIFT) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Mark the count as seen by {@code observer} and return it. The next increment after this call
+     * notifies {@code observer} again; other observers are unaffected.
+     *
+     * @param observer The observer that has seen the count. If it is not added, this only returns
+     *                 the count.
+     * @return The current count.
+     */
+    public long acknowledge(Observer observer) {
+        final Subscription subscription = findSubscription(observer);
+        if (subscription != null) {
+            // Clear the flag before summing, so an increment that lands after the sum is read
+            // always triggers a new notification.
+            subscription.changed.set(false);
+        }
+        return sum();
+    }
+
+    //
+    // Observers
+    //
+
+    /**
+     * Add an observer, which is notified of the next change.
+     */
+    public void addObserver(Observer observer) {
+        synchronized (subscriptions) {
+            if (findSubscription(observer) == null) {
+                subscriptions.add(new Subscription(observer));
+            }
+        }
+    }
+
+    public void removeObserver(Observer observer) {
+        synchronized (subscriptions) {
+            final Subscription subscription = findSubscription(observer);
+            if (subscription != null) {
+                subscriptions.remove(subscription);
+            }
+        }
+    }
+
+    private Subscription findSubscription(Observer observer) {
+        for (int i = 0; i < subscriptions.size(); i++) {
+            final Subscription subscription = subscriptions.get(i);
+            if (subscription.observer == observer) {
+                return subscription;
+            }
+        }
+        return null;
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * An observer and whether the count changed since it last acknowledged it.
+     */
+    private static final class Subscription {
+
+        final Observer observer;
+        final AtomicBoolean changed = new AtomicBoolean();
+
+        Subscription(Observer observer) {
+            this.observer = observer;
+        }
+    }
+}
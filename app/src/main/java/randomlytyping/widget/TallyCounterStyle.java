@@ -0,0 +1,204 @@
+package randomlytyping.widget;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.v4.content.ContextCompat;
+import android.util.AttributeSet;
+import android.util.LruCache;
+
+import java.util.WeakHashMap;
+
+import randomlytyping.mldr.R;
+
+/**
+ * Resolved values of the {@code TallyCounter} styleable attributes for one combination of theme
+ * and XML attributes.
+ *
+ * Resolving the attributes means obtaining a {@link TypedArray} and looking up the default colors
+ * for every counter. When the same layout is inflated over and over, as for list items, every
+ * counter resolves the same values. Resolved styles are therefore cached by resources, theme,
+ * style attribute and the raw values of the {@code TallyCounter} attributes in the XML tag. The
+ * resources stand for the configuration the values were resolved in. Resources and themes are
+ * held weakly, so the cache never keeps a finished activity's theme and resources alive. The
+ * cache can be used from any thread.
+ */
+final class TallyCounterStyle {
+
+    // Upper bound on cached styles per theme.
+    private static final int MAX_CACHED_STYLES = 32;
+
+    // Styles by resources, theme and XML attributes. Resources compare by identity, and themes by
+    // the styles applied to them from API 23. Styles only hold resolved values, so they never
+    // keep a theme or its resources reachable. The weak maps are guarded by CACHE.
+    private static final WeakHashMap<Resources,
+        WeakHashMap<Resources.Theme, LruCache<Key, TallyCounterStyle>>> CACHE =
+        new WeakHashMap<>();
+
+    //
+    // Fields
+    //
+
+    final int backgroundColor;
+    final int baselineColor;
+    final int baselineWidth;
+    final int textColor;
+    final float textSize;
+    final int cornerRadius;
+    final int maxCount;
+    final boolean animateChanges;
+    final int boundsPolicy;
+    final boolean cacheChrome;
+    final int renderMode;
+
+    //
+    // Constructors/Factories
+    //
+
+    private TallyCounterStyle(Context context, AttributeSet attrs) {
+        final Resources resources = context.getResources();
+
+        // Get an array containing TallyCount attributes from XML.
+        final TypedArray typedArray = context
+            .obtainStyledAttributes(attrs, R.styleable.TallyCounter, 0, 0);
+
+        backgroundColor = typedArray.getColor(R.styleable.TallyCounter_backgroundColor,
+            ContextCompat.getColor(context, R.color.colorPrimary));
+        baselineColor = typedArray.getColor(R.styleable.TallyCounter_baselineColor,
+            ContextCompat.getColor(context, R.color.colorAccent));
+        baselineWidth =
+            typedArray.getDimensionPixelSize(R.styleable.TallyCounter_baselineWidth, 1);
+        textColor = typedArray.getColor(R.styleable.TallyCounter_android_textColor,
+            ContextCompat.getColor(context, android.R.color.white));
+        textSize = Math.round(
+            typedArray.getDimensionPixelSize(R.styleable.TallyCounter_android_textSize,
+                Math.round(64f * resources.getDisplayMetrics().scaledDensity)));
+        cornerRadius = typedArray.getDimensionPixelSize(R.styleable.TallyCounter_cornerRadius,
+            Math.round(2f * resources.getDisplayMetrics().density));
+        maxCount = typedArray.getInt(R.styleable.TallyCounter_maxCount,
+            BaseTallyCounter.DEFAULT_MAX_COUNT);
+        animateChanges = typedArray.getBoolean(R.styleable.TallyCounter_animateChanges, false);
+        boundsPolicy = typedArray.getInt(R.styleable.TallyCounter_boundsPolicy,
+            TallyCounter.BOUNDS_FIXED);
+        cacheChrome = typedArray.getBoolean(R.styleable.TallyCounter_cacheChrome, false);
+        renderMode = typedArray.getInt(R.styleable.TallyCounter_renderMode,
+            TallyCounter.RENDER_MODE_TEXT);
+
+        // Recycle the TypeArray. Always do this!
+        typedArray.recycle();
+    }
+
+    /**
+     * Get the resolved style for a counter created with {@code attrs} in {@code context},
+     * resolving the attributes only if a counter with the same theme and attributes has not been
+     * created recently.
+     *
+     * @param context The Context the counter is running in.
+     * @param attrs   The attributes of the XML tag that is inflating the counter, or null.
+     * @return Shared resolved style.
+     */
+    static TallyCounterStyle obtain(Context context, AttributeSet attrs) {
+        final LruCache<Key, TallyCounterStyle> styles =
+            getStyles(context.getResources(), context.getTheme());
+        final Key key = new Key(attrs);
+        TallyCounterStyle style = styles.get(key);
+        if (style == null) {
+            style = new TallyCounterStyle(context, attrs);
+            styles.put(key, style);
+        }
+        return style;
+    }
+
+    /**
+     * @return The cached styles of a theme, which are created empty if there are none.
+     */
+    private static LruCache<Key, TallyCounterStyle> getStyles(Resources resources,
+                                                              Resources.Theme theme) {
+        synchronized (CACHE) {
+            WeakHashMap<Resources.Theme, LruCache<Key, TallyCounterStyle>> themes =
+                CACHE.get(resources);
+            if (themes == null) {
+                themes = new WeakHashMap<>();
+                CACHE.put(resources, themes);
+            }
+            LruCache<Key, TallyCounterStyle> styles = themes.get(theme);
+            if (styles == null) {
+                styles = new LruCache<>(MAX_CACHED_STYLES);
+                themes.put(theme, styles);
+            }
+            return styles;
+        }
+    }
+
+    /**
+     * Forget every resolved style, so the next counters resolve their attributes again.
+     */
+    static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Cache key for a set of XML attributes within one theme.
+     */
+    private static final class Key {
+        private final int styleAttribute;
+        // Raw values of the TallyCounter attributes, as "nameResource=value;" pairs.
+        private final String attributes;
+
+        Key(AttributeSet attrs) {
+            if (attrs == null) {
+                styleAttribute = 0;
+                attributes = "";
+                return;
+            }
+            styleAttribute = attrs.getStyleAttribute();
+
+            // Only attributes in the styleable can change the resolved values, so layout
+            // parameters and other view attributes do not split the cache.
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < attrs.getAttributeCount(); i++) {
+                final int nameResource = attrs.getAttributeNameResource(i);
+                if (isStyleableAttribute(nameResource)) {
+                    builder.append(nameResource).append('=')
+                        .append(attrs.getAttributeValue(i)).append(';');
+                }
+            }
+            attributes = builder.toString();
+        }
+
+        private static boolean isStyleableAttribute(int nameResource) {
+            for (int attr : R.styleable.TallyCounter) {
+                if (attr == nameResource) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return styleAttribute == key.styleAttribute
+                && attributes.equals(key.attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = styleAttribute;
+            result = 31 * result + attributes.hashCode();
+            return result;
+        }
+    }
+}
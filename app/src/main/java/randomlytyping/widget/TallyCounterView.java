@@ -2,36 +2,12 @@ package randomlytyping.widget;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Paint;
-import android.graphics.RectF;
-import android.support.v4.content.ContextCompat;
-import android.text.TextPaint;
 import android.util.AttributeSet;
-import android.view.View;
-
-import java.util.Locale;
-
-import randomlytyping.mldr.R;
 
 /**
  * Simplest version of our tally counter component that just implements {@link #onDraw(Canvas)}.
  */
-public class TallyCounterView extends View implements TallyCounter {
-
-    private static final int MAX_COUNT = 9999;
-
-    // State variables
-    private int count;
-    private String displayedCount;
-
-    // Drawing variables
-    private Paint backgroundPaint;
-    private Paint linePaint;
-    private TextPaint numberPaint;
-
-    private RectF backgroundRect;
-
-    private float cornerRadius;
+public class TallyCounterView extends BaseTallyCounter {
 
     //
     // Constructors/Initialization
@@ -59,59 +35,29 @@ public class TallyCounterView extends View implements TallyCounter {
     public TallyCounterView(Context context, AttributeSet attrs) {
         super(context, attrs);
 
-        // Set up paints for canvas drawing.
-        backgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        backgroundPaint.setColor(ContextCompat.getColor(context, R.color.colorPrimary));
-        linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        linePaint.setColor(ContextCompat.getColor(context, R.color.colorAccent));
-        linePaint.setStrokeWidth(1f);
-        numberPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
-        numberPaint.setColor(ContextCompat.getColor(context, android.R.color.white));
-        // Set the number text size to be 64sp.
-        // Translate 64sp
-        numberPaint.setTextSize(Math.round(64f * getResources().getDisplayMetrics().scaledDensity));
-
-        // Allocate objects needed for canvas drawing here.
-        backgroundRect = new RectF();
-
-        // Initialize drawing measurements.
-        cornerRadius = Math.round(2f * getResources().getDisplayMetrics().density);
-
         // Do initial count setup.
         setCount(0);
     }
 
     //
-    // TallyCounter interface
+    // BaseTallyCounter hooks
     //
 
     @Override
-    public void reset() {
-        setCount(0);
-    }
-
-    @Override
-    public void increment() {
-        setCount(count + 1);
-    }
-
-    @Override
-    public void setCount(int count) {
-        count = Math.min(count, MAX_COUNT);
-        this.count = count;
-        // Create the string here.
-        this.displayedCount = String.format(Locale.getDefault(), "%04d", count);
-    }
-
-    @Override
-    public int getCount() {
-        return count;
+    void onDisplayedCountChanged(float oldTextWidth) {
+        // Nothing tells the view to redraw, so a new count only shows up with the next frame
+        // drawn for some other reason.
     }
 
     //
     // View overrides
     //
 
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measureAsPlainView(widthMeasureSpec, heightMeasureSpec);
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
 
@@ -122,31 +68,19 @@ public class TallyCounterView extends View implements TallyCounter {
         // Calculate horizontal center.
         final float centerX = canvasWidth * 0.5f;
 
-        // Draw the background.
-        backgroundRect.set(0f, 0f, canvasWidth, canvasHeight);
-        canvas.drawRoundRect(backgroundRect, cornerRadius, cornerRadius, backgroundPaint);
-
-        // Draw baseline.
+        // Draw the background and baseline.
+        drawChrome(canvas, canvasWidth, canvasHeight);
         final float baselineY = Math.round(canvasHeight * 0.6f);
-        canvas.drawLine(0, baselineY, canvasWidth, baselineY, linePaint);
 
         // Draw text.
+        final char[] displayedCount = getDisplayedCount();
 
         // Measure the width of text to display.
-        final float textWidth = numberPaint.measureText(displayedCount);
+        final float textWidth = getDigitMetrics().measureText(displayedCount);
         // Figure out an x-coordinate that will center the text in the canvas.
         final float textX = Math.round(centerX - textWidth * 0.5f);
         // Draw.
-        canvas.drawText(displayedCount, textX, baselineY, numberPaint);
+        canvas.drawText(displayedCount, 0, displayedCount.length, textX, baselineY,
+            getPaints().getNumberPaint());
     }
 }
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,50 @@
+package randomlytyping.widget;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Stress helper for {@link TallyCounterModel}, shared by the local and instrumentation tests.
+ */
+final class ModelIncrementers {
+
+    /**
+     * Increment {@code model} from {@code threads} threads at once, {@code incrementsPerThread}
+     * times each, and wait for them all to finish.
+     */
+    static void run(final TallyCounterModel model, int threads, final int incrementsPerThread)
+        throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] incrementers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            incrementers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < incrementsPerThread; j++) {
+                        model.increment();
+                    }
+                }
+            });
+            incrementers[i].start();
+        }
+        start.countDown();
+        for (Thread thread : incrementers) {
+            thread.join();
+        }
+    }
+
+    //
+    // Constructors
+    //
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private ModelIncrementers() {
+        throw new AssertionError("Cannot instantiate " + getClass().getName());
+    }
+}
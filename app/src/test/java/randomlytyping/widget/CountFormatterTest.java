@@ -0,0 +1,105 @@
+package randomlytyping.widget;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests for {@link CountFormatter}.
+ */
+public class CountFormatterTest {
+
+    private static final int ITERATIONS = 100000;
+
+    @Test
+    public void format_padsWithLeadingZeroes() throws Exception {
+        final CountFormatter formatter = new CountFormatter(4, '0');
+
+        assertEquals("0000", new String(formatter.format(0)));
+        assertEquals("0042", new String(formatter.format(42)));
+        assertEquals("0010", new String(formatter.format(10)));
+        assertEquals("9999", new String(formatter.format(9999)));
+    }
+
+    @Test
+    public void format_handlesNineteenDigits() throws Exception {
+        final CountFormatter formatter =
+            new CountFormatter(CountFormatter.digitCount(Long.MAX_VALUE), '0');
+
+        assertEquals(19, formatter.getWidth());
+        assertEquals("9223372036854775807", new String(formatter.format(Long.MAX_VALUE)));
+        assertEquals("0000000000001000000", new String(formatter.format(1000000L)));
+    }
+
+    @Test
+    public void digitCount_countsDecimalDigits() throws Exception {
+        assertEquals(1, CountFormatter.digitCount(0));
+        assertEquals(4, CountFormatter.digitCount(9999));
+        assertEquals(5, CountFormatter.digitCount(10000));
+        assertEquals(19, CountFormatter.digitCount(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void format_usesLocaleZeroDigit() throws Exception {
+        // Arabic-Indic digits start at U+0660.
+        final CountFormatter formatter = new CountFormatter(4, '٠');
+
+        assertEquals("٠٠١٩", new String(formatter.format(19)));
+    }
+
+    @Test
+    public void format_reusesBuffer() throws Exception {
+        final CountFormatter formatter = new CountFormatter(4, '0');
+
+        assertSame(formatter.format(1), formatter.format(2));
+        assertSame(formatter.getDigits(), formatter.format(3));
+    }
+
+    @Test
+    public void format_reportsChangedDigits() throws Exception {
+        final CountFormatter formatter = new CountFormatter(4, '0');
+
+        formatter.format(9);
+        assertEquals(3, formatter.getFirstChangedIndex());
+        assertEquals(3, formatter.getLastChangedIndex());
+
+        formatter.format(10);
+        assertEquals(2, formatter.getFirstChangedIndex());
+        assertEquals(3, formatter.getLastChangedIndex());
+
+        formatter.format(1010);
+        assertEquals(0, formatter.getFirstChangedIndex());
+        assertEquals(0, formatter.getLastChangedIndex());
+
+        formatter.format(1010);
+        assertEquals(-1, formatter.getFirstChangedIndex());
+        assertEquals(-1, formatter.getLastChangedIndex());
+    }
+
+    @Test
+    public void format_doesNotAllocatePerIncrement() throws Exception {
+        final com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+        final CountFormatter formatter = new CountFormatter(4, '0');
+
+        // Warm up so the loop below runs compiled code.
+        for (int i = 0; i < ITERATIONS; i++) {
+            formatter.format(i % 10000);
+        }
+
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            formatter.format(i % 10000);
+        }
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // Reading the allocation counter may itself allocate a few bytes, so only require that
+        // the loop averages less than one byte per increment.
+        assertTrue("Allocated " + allocated + " bytes", allocated < ITERATIONS);
+    }
+}
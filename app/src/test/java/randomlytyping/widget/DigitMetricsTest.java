@@ -0,0 +1,57 @@
+package randomlytyping.widget;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Local unit tests for {@link DigitMetrics}.
+ */
+public class DigitMetricsTest {
+
+    private static final float DELTA = 0.001f;
+
+    // Proportional advances: "1" is narrow, everything else is 10px wide.
+    private static final float[] ADVANCES = {10f, 4f, 10f, 10f, 10f, 10f, 10f, 10f, 10f, 10f};
+
+    private final DigitMetrics metrics = new DigitMetrics(ADVANCES, '0', -30f, 8f);
+
+    @Test
+    public void measureText_sumsAdvances() throws Exception {
+        assertEquals(40f, metrics.measureText("0009".toCharArray()), DELTA);
+        assertEquals(34f, metrics.measureText("0010".toCharArray()), DELTA);
+        assertEquals(40f, metrics.measureMaxText(4), DELTA);
+        assertEquals(38f, metrics.getTextHeight(), DELTA);
+    }
+
+    @Test
+    public void getDigitSpan_coversChangedCells() throws Exception {
+        final CountFormatter formatter = new CountFormatter(4, '0');
+        final float[] span = new float[2];
+
+        // 0008 -> 0009 only touches the last cell. Text is 40px wide centered on 100.
+        formatter.format(8);
+        final char[] digits = formatter.format(9);
+        metrics.getDigitSpan(digits, formatter.getFirstChangedIndex(),
+            formatter.getLastChangedIndex(), 100f, span);
+        assertEquals(110f, span[0], DELTA);
+        assertEquals(120f, span[1], DELTA);
+    }
+
+    @Test
+    public void getDigitSpan_0009to0010() throws Exception {
+        final DigitMetrics fixed = new DigitMetrics(new float[]{
+            10f, 10f, 10f, 10f, 10f, 10f, 10f, 10f, 10f, 10f}, '0', -30f, 8f);
+        final CountFormatter formatter = new CountFormatter(4, '0');
+        final float[] span = new float[2];
+
+        formatter.format(9);
+        final char[] digits = formatter.format(10);
+        fixed.getDigitSpan(digits, formatter.getFirstChangedIndex(),
+            formatter.getLastChangedIndex(), 100f, span);
+
+        // The two rightmost cells changed; the leading "00" is untouched.
+        assertEquals(100f, span[0], DELTA);
+        assertEquals(120f, span[1], DELTA);
+    }
+}
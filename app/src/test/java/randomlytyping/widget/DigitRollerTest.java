@@ -0,0 +1,66 @@
+package randomlytyping.widget;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests for {@link DigitRoller}.
+ */
+public class DigitRollerTest {
+
+    // One frame at 60fps.
+    private static final long FRAME_MS = 16;
+
+    private static final int INCREMENTS = 120;
+
+    @Test
+    public void start_rollsAwayFromPreviousDigits() throws Exception {
+        final CountFormatter formatter = new CountFormatter(4, '0');
+        final DigitRoller roller = new DigitRoller(4, DigitRoller.DEFAULT_DURATION_MS);
+
+        formatter.format(9);
+        roller.start(formatter.getDigits(), 0);
+        formatter.format(10);
+
+        assertTrue(roller.isRunning(0));
+        assertEquals("0009", new String(roller.getFromDigits()));
+        assertEquals(0f, roller.getProgress(0), 0f);
+    }
+
+    @Test
+    public void start_everyFrame_tracksLatestCount() throws Exception {
+        // One increment per frame retargets a roll that is still running on every frame.
+        final CountFormatter formatter = new CountFormatter(4, '0');
+        final DigitRoller roller = new DigitRoller(4, DigitRoller.DEFAULT_DURATION_MS);
+        formatter.format(0);
+
+        long now = 0;
+        for (int count = 1; count <= INCREMENTS; count++) {
+            roller.start(formatter.getDigits(), now);
+            formatter.format(count);
+            now += FRAME_MS;
+
+            // The roll on screen is always from the previous count to the latest one.
+            assertTrue(roller.isRunning(now));
+            assertEquals(formatter.getWidth(), roller.getWidth());
+            assertEquals(format(count - 1), new String(roller.getFromDigits()));
+        }
+
+        // Once increments stop, the roll settles on the latest count within one duration.
+        now += DigitRoller.DEFAULT_DURATION_MS;
+        assertFalse(roller.isRunning(now));
+        assertEquals(1f, roller.getProgress(now), 0f);
+        assertEquals(format(INCREMENTS), new String(formatter.getDigits()));
+    }
+
+    //
+    // Helpers
+    //
+
+    private static String format(long count) {
+        return new String(new CountFormatter(4, '0').format(count));
+    }
+}
@@ -0,0 +1,65 @@
+package randomlytyping.widget;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests for {@link MeasureCache}. {@code CounterMeasureTest} covers how the counters
+ * use it.
+ */
+public class MeasureCacheTest {
+
+    // Stand-ins for MeasureSpec values; the cache only compares them.
+    private static final int WIDTH_SPEC_A = 100;
+    private static final int WIDTH_SPEC_B = 200;
+    private static final int HEIGHT_SPEC = 300;
+
+    private final MeasureCache cache = new MeasureCache();
+
+    @Test
+    public void put_findsEntryBySpecs() throws Exception {
+        cache.put(WIDTH_SPEC_A, HEIGHT_SPEC, 42, 24);
+        cache.put(WIDTH_SPEC_B, HEIGHT_SPEC, 84, 24);
+
+        assertEquals(42, cache.getMeasuredWidth(cache.indexOf(WIDTH_SPEC_A, HEIGHT_SPEC)));
+        assertEquals(84, cache.getMeasuredWidth(cache.indexOf(WIDTH_SPEC_B, HEIGHT_SPEC)));
+        assertEquals(-1, cache.indexOf(WIDTH_SPEC_A, WIDTH_SPEC_B));
+    }
+
+    @Test
+    public void paddingChange_clearsCache() throws Exception {
+        cache.validatePadding(0, 0, 0, 0);
+        cache.setContentSize(42, 24);
+        cache.put(WIDTH_SPEC_A, HEIGHT_SPEC, 42, 24);
+
+        cache.validatePadding(0, 0, 0, 0);
+        assertTrue(cache.hasContentSize());
+
+        cache.validatePadding(8, 0, 8, 0);
+        assertFalse(cache.hasContentSize());
+        assertEquals(-1, cache.indexOf(WIDTH_SPEC_A, HEIGHT_SPEC));
+    }
+
+    @Test
+    public void clear_forgetsContentAndEntries() throws Exception {
+        cache.setContentSize(42, 24);
+        cache.put(WIDTH_SPEC_A, HEIGHT_SPEC, 42, 24);
+        cache.clear();
+
+        assertFalse(cache.hasContentSize());
+        assertEquals(-1, cache.indexOf(WIDTH_SPEC_A, HEIGHT_SPEC));
+    }
+
+    @Test
+    public void put_evictsOldestEntry() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, HEIGHT_SPEC, i, i);
+        }
+
+        assertEquals(-1, cache.indexOf(0, HEIGHT_SPEC));
+        assertEquals(4, cache.getMeasuredWidth(cache.indexOf(4, HEIGHT_SPEC)));
+    }
+}
@@ -0,0 +1,140 @@
+package randomlytyping.widget;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Local unit tests for {@link TallyCounterModel}.
+ */
+public class TallyCounterModelTest {
+
+    private static final int THREADS = 16;
+    private static final int INCREMENTS_PER_THREAD = 100000;
+
+    @Test
+    public void concurrentIncrements_sumToTotal() throws Exception {
+        final TallyCounterModel model = new TallyCounterModel();
+
+        ModelIncrementers.run(model, THREADS, INCREMENTS_PER_THREAD);
+
+        assertEquals((long) THREADS * INCREMENTS_PER_THREAD, model.sum());
+    }
+
+    @Test
+    public void unacknowledgedChanges_notifyOnce() throws Exception {
+        final TallyCounterModel model = new TallyCounterModel();
+        final AtomicInteger notifications = new AtomicInteger();
+        model.addObserver(new TallyCounterModel.Observer() {
+            @Override
+            public void onCountChanged(TallyCounterModel model) {
+                notifications.incrementAndGet();
+            }
+        });
+
+        ModelIncrementers.run(model, THREADS, INCREMENTS_PER_THREAD);
+
+        assertEquals(1, notifications.get());
+    }
+
+    @Test
+    public void concurrentIncrements_redrawAtMostOncePerFrame() throws Exception {
+        final TallyCounterModel model = new TallyCounterModel();
+        final AtomicInteger notifications = new AtomicInteger();
+        final AtomicInteger frames = new AtomicInteger();
+        final AtomicBoolean pending = new AtomicBoolean();
+        final TallyCounterModel.Observer observer = new TallyCounterModel.Observer() {
+            @Override
+            public void onCountChanged(TallyCounterModel model) {
+                notifications.incrementAndGet();
+                pending.set(true);
+            }
+        };
+        model.addObserver(observer);
+
+        // Simulate a display that acknowledges the model once per ~16ms frame.
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread display = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (running.get()) {
+                    if (pending.getAndSet(false)) {
+                        model.acknowledge(observer);
+                    }
+                    frames.incrementAndGet();
+                    try {
+                        Thread.sleep(16);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        });
+        display.start();
+
+        ModelIncrementers.run(model, THREADS, INCREMENTS_PER_THREAD);
+
+        running.set(false);
+        display.join();
+
+        final long last = model.acknowledge(observer);
+        assertEquals((long) THREADS * INCREMENTS_PER_THREAD, last);
+        // Every notification but the first needs a frame to have acknowledged the one before.
+        assertTrue(notifications.get() + " notifications in " + frames.get() + " frames",
+            notifications.get() <= frames.get() + 1);
+    }
+
+    @Test
+    public void acknowledge_onlyRearmsAcknowledgingObserver() {
+        final TallyCounterModel model = new TallyCounterModel();
+        final CountingObserver first = new CountingObserver();
+        final CountingObserver second = new CountingObserver();
+        model.addObserver(first);
+        model.addObserver(second);
+
+        model.increment();
+        assertEquals(1, first.notifications);
+        assertEquals(1, second.notifications);
+
+        // Only the first has seen the change, so only it hears about the next one.
+        model.acknowledge(first);
+        model.increment();
+        assertEquals(2, first.notifications);
+        assertEquals(1, second.notifications);
+
+        model.acknowledge(second);
+        model.increment();
+        assertEquals(2, first.notifications);
+        assertEquals(2, second.notifications);
+    }
+
+    @Test
+    public void reset_clearsCount() throws Exception {
+        final TallyCounterModel model = new TallyCounterModel();
+        model.add(42);
+        model.reset();
+
+        assertEquals(0, model.sum());
+    }
+
+    //
+    // Inner classes
+    //
+
+    /**
+     * Counts its notifications. Only for observers notified on the test thread.
+     */
+    private static class CountingObserver implements TallyCounterModel.Observer {
+
+        int notifications;
+
+        @Override
+        public void onCountChanged(TallyCounterModel model) {
+            notifications++;
+        }
+    }
+}